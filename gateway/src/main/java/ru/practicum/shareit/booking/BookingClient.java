@@ -2,34 +2,51 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                         HttpClientProperties properties, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClientBuilder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                properties.getMode(),
+                responseCache,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getById(int userId, int bookingId) {
+    public Mono<ResponseEntity<Object>> getById(int userId, int bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllByState(int userId, RequestBookingStatus state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllByState(int userId, RequestBookingStatus state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -38,7 +55,7 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllByStateForOwner(int userId, RequestBookingStatus state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllByStateForOwner(int userId, RequestBookingStatus state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -47,12 +64,46 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> create(int userId, BookingRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> getAllByStateWithCursor(int userId, RequestBookingStatus state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllByStateForOwnerWithCursor(int userId, RequestBookingStatus state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<StreamingResponseBody> export(int userId, BookingExportFormat format) throws IOException {
+        return stream("/export?format={format}", userId, Map.of("format", format.name()), mediaType(format));
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportForOwner(int userId, BookingExportFormat format) throws IOException {
+        return stream("/owner/export?format={format}", userId, Map.of("format", format.name()), mediaType(format));
+    }
+
+    public Mono<ResponseEntity<Object>> create(int userId, BookingRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> approve(int userId, int bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> createAll(int userId, List<BookingRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> approve(int userId, int bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
+
+    private static MediaType mediaType(BookingExportFormat format) {
+        return format == BookingExportFormat.CSV ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON;
+    }
 }
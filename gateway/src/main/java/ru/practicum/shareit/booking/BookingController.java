@@ -4,51 +4,98 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
+import ru.practicum.shareit.client.IdempotencyStore;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.util.List;
 
 @Validated
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 10000;
+
     private final BookingClient bookingClient;
+    private final IdempotencyStore idempotencyStore;
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") int userId,
-                                          @PathVariable int bookingId) {
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                @PathVariable int bookingId) {
         return bookingClient.getById(userId, bookingId);
     }
 
     @GetMapping()
-    public ResponseEntity<Object> getAllByState(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                @RequestParam(required = false, defaultValue = "ALL") @Valid RequestBookingStatus state,
-                                                @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
-                                                @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
+    public Mono<ResponseEntity<Object>> getAllByState(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                      @RequestParam(required = false, defaultValue = "ALL") @Valid RequestBookingStatus state,
+                                                      @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
+                                                      @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
         return bookingClient.getAllByState(userId, state, from, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllByStateForOwner(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                        @RequestParam(required = false, defaultValue = "ALL") @Valid RequestBookingStatus state,
-                                                        @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
-                                                        @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
+    public Mono<ResponseEntity<Object>> getAllByStateForOwner(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                              @RequestParam(required = false, defaultValue = "ALL") @Valid RequestBookingStatus state,
+                                                              @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
+                                                              @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
         return bookingClient.getAllByStateForOwner(userId, state, from, size);
     }
 
+    @GetMapping(params = "cursor")
+    public Mono<ResponseEntity<Object>> getAllByStateWithCursor(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                                @RequestParam(required = false, defaultValue = "ALL") @Valid RequestBookingStatus state,
+                                                                @RequestParam String cursor,
+                                                                @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
+        return bookingClient.getAllByStateWithCursor(userId, state, cursor, size);
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public Mono<ResponseEntity<Object>> getAllByStateForOwnerWithCursor(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                                        @RequestParam(required = false, defaultValue = "ALL") @Valid RequestBookingStatus state,
+                                                                        @RequestParam String cursor,
+                                                                        @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
+        return bookingClient.getAllByStateForOwnerWithCursor(userId, state, cursor, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                        @RequestParam(required = false, defaultValue = "NDJSON") BookingExportFormat format) throws IOException {
+        return bookingClient.export(userId, format);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportForOwner(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                                @RequestParam(required = false, defaultValue = "NDJSON") BookingExportFormat format) throws IOException {
+        return bookingClient.exportForOwner(userId, format);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") int userId,
-                                         @Valid @RequestBody BookingRequestDto bookingRequestDto) {
-        return bookingClient.create(userId, bookingRequestDto);
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") int userId,
+                                               @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                               @Valid @RequestBody BookingRequestDto bookingRequestDto) {
+        return idempotencyStore.execute(userId, "POST /bookings", idempotencyKey, bookingRequestDto,
+                () -> bookingClient.create(userId, bookingRequestDto));
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createAll(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                  @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<BookingRequestDto> bookingRequestDtos) {
+        return bookingClient.createAll(userId, bookingRequestDtos);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approve(@RequestHeader("X-Sharer-User-Id") int userId,
-                                          @PathVariable int bookingId,
-                                          @RequestParam boolean approved) {
+    public Mono<ResponseEntity<Object>> approve(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                @PathVariable int bookingId,
+                                                @RequestParam boolean approved) {
         return bookingClient.approve(userId, bookingId, approved);
     }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.dto;
+
+public enum BookingExportFormat {
+    NDJSON,
+    CSV
+}
\ No newline at end of file
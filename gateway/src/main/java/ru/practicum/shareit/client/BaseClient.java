@@ -1,94 +1,215 @@
 package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection",
+            "keep-alive",
+            "transfer-encoding",
+            "content-length",
+            "proxy-connection",
+            "te",
+            "trailer",
+            "upgrade"
+    );
+
     protected final RestTemplate rest;
+    protected final WebClient webClient;
+    private final ProxyMode proxyMode;
+    private final ResponseCache responseCache;
+    private final String cacheRegion;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, WebClient webClient, ProxyMode proxyMode,
+                      ResponseCache responseCache, String cacheRegion) {
         this.rest = rest;
+        this.webClient = webClient;
+        this.proxyMode = proxyMode;
+        this.responseCache = responseCache;
+        this.cacheRegion = cacheRegion;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, int userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, int userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<Object>> getCached(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+        return getCached(path, userId, parameters, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> getCached(String path, Integer userId, @Nullable Map<String, Object> parameters,
+                                                     @Nullable String ifNoneMatch) {
+        String expandedPath = parameters != null
+                ? UriComponentsBuilder.fromUriString(path).buildAndExpand(parameters).toUriString()
+                : path;
+        String key = ResponseCache.key(cacheRegion, expandedPath, userId);
+
+        ResponseEntity<Object> cachedResponse = responseCache.get(key);
+        if (cachedResponse != null) {
+            String entityTag = cachedResponse.getHeaders().getETag();
+            if (matchesEntityTag(ifNoneMatch, entityTag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag).build());
+            }
+            return Mono.just(cachedResponse);
+        }
+
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+
+        long generation = responseCache.generation(cacheRegion);
+        return makeAndSendRequest(HttpMethod.GET, path, headers, parameters, null)
+                .doOnNext(response -> {
+                    if (response.getStatusCode() == HttpStatus.OK) {
+                        responseCache.put(cacheRegion, generation, key, response);
+                    }
+                });
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Integer userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Integer userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, int userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> postAs(MediaType contentType, String path, Integer userId, T body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setContentType(contentType);
+        headers.setAccept(List.of(contentType));
+        return makeAndSendRequest(HttpMethod.POST, path, headers, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> put(String path, int userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, int userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, int userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, int userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, int userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, int userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, int userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    protected ResponseEntity<StreamingResponseBody> stream(String path, Integer userId, @Nullable Map<String, Object> parameters,
+                                                           MediaType accept) throws IOException {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+        request.getHeaders().addAll(defaultHeaders(userId));
+        request.getHeaders().setAccept(List.of(accept, MediaType.APPLICATION_JSON));
+
+        ClientHttpResponse response = request.execute();
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode());
+        copyHeaders(response.getHeaders(), responseBuilder);
+
+        StreamingResponseBody body = outputStream -> {
+            try (response) {
+                StreamUtils.copy(response.getBody(), outputStream);
+            }
+        };
+        return responseBuilder.body(body);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return makeAndSendRequest(method, path, defaultHeaders(userId), parameters, body);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        Mono<ResponseEntity<Object>> response = proxyMode == ProxyMode.NON_BLOCKING
+                ? exchangeNonBlocking(method, path, headers, parameters, body)
+                : Mono.fromCallable(() -> exchangeBlocking(method, path, headers, parameters, body));
+
+        if (method == HttpMethod.GET) {
+            return response;
+        }
+
+        return response
+                .doOnSuccess(ignored -> responseCache.invalidate(cacheRegion))
+                .doOnError(ignored -> responseCache.invalidate(cacheRegion));
+    }
+
+    private <T> ResponseEntity<Object> exchangeBlocking(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return prepareGatewayResponse(shareitServerResponse.getStatusCodeValue(), shareitServerResponse.getHeaders(), shareitServerResponse.getBody());
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchangeNonBlocking(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+
+        return requestWithBody.exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> prepareGatewayResponse(response.getStatusCodeValue(), response.getHeaders(), response.getBody()));
     }
 
     private HttpHeaders defaultHeaders(Integer userId) {
@@ -101,17 +222,37 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static boolean matchesEntityTag(@Nullable String ifNoneMatch, @Nullable String entityTag) {
+        if (ifNoneMatch == null || entityTag == null) {
+            return false;
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        String strongEntityTag = entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(strongEntityTag));
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static ResponseEntity<Object> prepareGatewayResponse(int status, @Nullable HttpHeaders headers, @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+
+        if (headers != null) {
+            copyHeaders(headers, responseBuilder);
+        }
+
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
     }
+
+    private static void copyHeaders(HttpHeaders headers, ResponseEntity.BodyBuilder responseBuilder) {
+        headers.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                responseBuilder.header(name, values.toArray(String[]::new));
+            }
+        });
+    }
 }
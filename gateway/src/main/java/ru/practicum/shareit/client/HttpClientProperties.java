@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+    private ProxyMode mode = ProxyMode.BLOCKING;
+    private int maxConnections = 200;
+    private int maxConnectionsPerRoute = 100;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration idleTimeout = Duration.ofSeconds(60);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    private int maxPendingRequests = 2000;
+    private DataSize maxInMemorySize = DataSize.ofBytes(-1);
+}
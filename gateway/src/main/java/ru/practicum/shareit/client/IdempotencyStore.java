@@ -0,0 +1,91 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bounded store of shareit-server responses to writes sent with an {@code Idempotency-Key} header, kept per user.
+ *
+ * <p>The first request with a key stores its pending response; retries and concurrent duplicates subscribe to the
+ * same response instead of reaching the server again. Failed calls and 5xx responses are dropped so they can be
+ * retried, and reusing a key with a different request body is rejected.
+ */
+@Component
+public class IdempotencyStore {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String CACHE_NAME = "shareit-gateway.idempotency";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> cache;
+
+    public IdempotencyStore(@Value("${shareit.gateway.idempotency.max-size:10000}") long maxSize,
+                            @Value("${shareit.gateway.idempotency.ttl:24h}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Mono<ResponseEntity<Object>> execute(int userId, String operation, @Nullable String idempotencyKey,
+                                                Object request, Supplier<Mono<ResponseEntity<Object>>> call) {
+        if (idempotencyKey == null) {
+            return call.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный Idempotency-Key");
+        }
+
+        String key = userId + " " + operation + " " + idempotencyKey;
+        Entry created = new Entry(request);
+        created.response = call.get()
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is5xxServerError()) {
+                        cache.asMap().remove(key, created);
+                    }
+                })
+                .doOnError(ignored -> cache.asMap().remove(key, created))
+                .cache();
+
+        Entry stored = cache.asMap().putIfAbsent(key, created);
+        if (stored == null) {
+            return created.response;
+        }
+        if (!Objects.equals(stored.request, request)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key уже использован для другого запроса");
+        }
+
+        return stored.response.map(response -> ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                .body(response.getBody()));
+    }
+
+    private static class Entry {
+        private final Object request;
+        private Mono<ResponseEntity<Object>> response;
+
+        private Entry(Object request) {
+            this.request = request;
+        }
+    }
+}
\ No newline at end of file
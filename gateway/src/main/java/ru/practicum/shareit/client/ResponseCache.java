@@ -0,0 +1,98 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of successful shareit-server GET responses, grouped into regions by API prefix.
+ *
+ * <p>A write through a client invalidates its own region and every region whose responses embed the written
+ * resource. Each region carries a generation, so a response fetched before an invalidation is never stored after it.
+ */
+@Component
+public class ResponseCache {
+    private static final String CACHE_NAME = "shareit-server.responses";
+    private static final Map<String, Set<String>> DEPENDENT_REGIONS = Map.of(
+            "/users", Set.of("/items", "/requests"),
+            "/items", Set.of("/requests"),
+            "/bookings", Set.of("/items")
+    );
+
+    private final boolean enabled;
+    private final Cache<String, ResponseEntity<Object>> cache;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Counter invalidations;
+
+    public ResponseCache(@Value("${shareit.gateway.cache.enabled:true}") boolean enabled,
+                         @Value("${shareit.gateway.cache.max-size:10000}") long maxSize,
+                         @Value("${shareit.gateway.cache.ttl:30s}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.invalidations = Counter.builder("cache.invalidations")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public static String key(String region, String path, @Nullable Integer userId) {
+        return region + " " + path + " " + userId;
+    }
+
+    @Nullable
+    public ResponseEntity<Object> get(String key) {
+        return enabled ? cache.getIfPresent(key) : null;
+    }
+
+    public long generation(String region) {
+        return generationOf(region).get();
+    }
+
+    public void put(String region, long generation, String key, ResponseEntity<Object> response) {
+        if (!enabled || generation(region) != generation) {
+            return;
+        }
+
+        cache.put(key, response);
+        if (generation(region) != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidate(String region) {
+        if (!enabled) {
+            return;
+        }
+
+        invalidateRegion(region);
+        DEPENDENT_REGIONS.getOrDefault(region, Set.of()).forEach(this::invalidateRegion);
+    }
+
+    private void invalidateRegion(String region) {
+        generationOf(region).incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.startsWith(region + " "));
+        invalidations.increment();
+    }
+
+    private AtomicLong generationOf(String region) {
+        return generations.computeIfAbsent(region, key -> new AtomicLong());
+    }
+}
\ No newline at end of file
@@ -2,34 +2,57 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                      HttpClientProperties properties, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClientBuilder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                properties.getMode(),
+                responseCache,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getById(int userId, int itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getById(int userId, int itemId, String ifNoneMatch) {
+        return getCached("/" + itemId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllByOwnerId(int userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAvailability(int userId, int itemId, LocalDateTime from, LocalDateTime to,
+                                                        String ifNoneMatch) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return getCached("/" + itemId + "/availability?from={from}&to={to}", userId, parameters, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(int userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -37,28 +60,32 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBySearchText(Integer userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBySearchText(Integer userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return getCached("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> create(int userId, ItemDto requestDto) {
+    public Mono<ResponseEntity<Object>> create(int userId, ItemDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> createComment(int userId, int itemId, CommentDto requestDto) {
+    public Mono<ResponseEntity<Object>> importItems(int userId, String items) {
+        return postAs(MediaType.APPLICATION_NDJSON, "/import", userId, items);
+    }
+
+    public Mono<ResponseEntity<Object>> createComment(int userId, int itemId, CommentDto requestDto) {
         return post("/" + itemId + "/comment", userId, requestDto);
     }
 
-    public ResponseEntity<Object> update(int userId, int itemId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> update(int userId, int itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, null, itemDto);
     }
 
-    public void delete(int itemId) {
-        delete("/" + itemId);
+    public Mono<ResponseEntity<Object>> delete(int itemId) {
+        return delete("/" + itemId);
     }
 }
\ No newline at end of file
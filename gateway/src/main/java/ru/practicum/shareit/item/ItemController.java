@@ -1,63 +1,100 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.IdempotencyStore;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemClient itemClient;
+    private final ItemImporter itemImporter;
+    private final IdempotencyStore idempotencyStore;
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") int userId,
-                                          @PathVariable int itemId) {
-        return itemClient.getById(userId, itemId);
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                @PathVariable int itemId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemClient.getById(userId, itemId, ifNoneMatch);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                        @PathVariable int itemId,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!to.isAfter(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Время окончания должно быть после старта");
+        }
+        return itemClient.getAvailability(userId, itemId, from, to, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByOwnerId(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                  @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
-                                                  @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                        @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
+                                                        @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
         return itemClient.getAllByOwnerId(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getAllBySearchText(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                     @RequestParam(name = "text") String text,
-                                                     @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
-                                                     @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
+    public Mono<ResponseEntity<Object>> getAllBySearchText(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                           @RequestParam(name = "text") String text,
+                                                           @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
+                                                           @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
         return itemClient.getAllBySearchText(userId, text, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") int userId,
-                                         @Valid @RequestBody ItemDto itemDto) {
-        return itemClient.create(userId, itemDto);
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") int userId,
+                                               @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                               @Valid @RequestBody ItemDto itemDto) {
+        return idempotencyStore.execute(userId, "POST /items", idempotencyKey, itemDto,
+                () -> itemClient.create(userId, itemDto));
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importItems(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                             InputStream input) {
+        StreamingResponseBody body = outputStream -> itemImporter.importItems(userId, input, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                @PathVariable int itemId,
-                                                @Valid @RequestBody CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                      @PathVariable int itemId,
+                                                      @Valid @RequestBody CommentDto commentDto) {
         return itemClient.createComment(userId, itemId, commentDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") int userId,
-                                         @PathVariable int itemId,
-                                         @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> update(@RequestHeader("X-Sharer-User-Id") int userId,
+                                               @PathVariable int itemId,
+                                               @RequestBody ItemDto itemDto) {
         return itemClient.update(userId, itemId, itemDto);
     }
 
     @DeleteMapping("/{itemId}")
-    public void delete(@PathVariable int itemId) {
-        itemClient.delete(itemId);
+    public Mono<Void> delete(@PathVariable int itemId) {
+        return itemClient.delete(itemId).then();
     }
 }
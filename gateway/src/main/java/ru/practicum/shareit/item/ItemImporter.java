@@ -0,0 +1,163 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Validates an NDJSON item upload line by line and forwards the valid lines to shareit-server in chunks.
+ *
+ * <p>At most one chunk is held in memory. Invalid lines are answered here; the server's results for a chunk are
+ * renumbered to the original upload lines, so the response has one result per non-blank input line, in input order.
+ * A chunk the server does not answer gets a 502 result for each of its lines, and the upload continues.
+ */
+@Component
+public class ItemImporter {
+    private final ItemClient itemClient;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public ItemImporter(ItemClient itemClient, ObjectMapper objectMapper, Validator validator,
+                        @Value("${shareit.item.import.chunk-size:500}") int chunkSize) {
+        this.itemClient = itemClient;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public void importItems(int userId, InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<ObjectNode> results = new ArrayList<>(chunkSize);
+        List<ObjectNode> forwarded = new ArrayList<>(chunkSize);
+        StringBuilder chunk = new StringBuilder();
+
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            ObjectNode result = objectMapper.createObjectNode().put("line", lineNumber);
+            results.add(result);
+
+            String error = validate(line);
+            if (error != null) {
+                result.put("status", HttpStatus.BAD_REQUEST.value()).put("error", error);
+            } else {
+                forwarded.add(result);
+                chunk.append(line).append('\n');
+            }
+
+            if (results.size() == chunkSize) {
+                sendChunk(userId, chunk, forwarded, results, output);
+            }
+        }
+
+        sendChunk(userId, chunk, forwarded, results, output);
+    }
+
+    private void sendChunk(int userId, StringBuilder chunk, List<ObjectNode> forwarded, List<ObjectNode> results,
+                           OutputStream output) throws IOException {
+        if (!forwarded.isEmpty()) {
+            forwardChunk(userId, chunk.toString(), forwarded);
+        }
+
+        for (ObjectNode result : results) {
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write('\n');
+        }
+        output.flush();
+
+        chunk.setLength(0);
+        forwarded.clear();
+        results.clear();
+    }
+
+    private void forwardChunk(int userId, String chunk, List<ObjectNode> forwarded) throws IOException {
+        ResponseEntity<Object> response;
+        try {
+            response = itemClient.importItems(userId, chunk).block();
+        } catch (RuntimeException e) {
+            markFailed(forwarded, HttpStatus.BAD_GATEWAY.value(), "Сервер недоступен");
+            return;
+        }
+
+        byte[] body = response != null && response.getBody() instanceof byte[] ? (byte[]) response.getBody() : new byte[0];
+
+        if (response != null && response.getStatusCode().is2xxSuccessful()) {
+            mergeResults(body, forwarded);
+        } else {
+            int status = response != null ? response.getStatusCodeValue() : HttpStatus.BAD_GATEWAY.value();
+            markFailed(forwarded, status, getError(body));
+        }
+    }
+
+    private static void markFailed(List<ObjectNode> forwarded, int status, String error) {
+        forwarded.forEach(result -> result.put("status", status).put("error", error));
+    }
+
+    private void mergeResults(byte[] body, List<ObjectNode> forwarded) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                StandardCharsets.UTF_8));
+
+        int next = 0;
+        String line;
+        while ((line = reader.readLine()) != null && next < forwarded.size()) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            ObjectNode result = forwarded.get(next++);
+            JsonNode lineNumber = result.get("line");
+            result.setAll((ObjectNode) objectMapper.readTree(line));
+            result.set("line", lineNumber);
+        }
+    }
+
+    private String validate(String line) {
+        ItemDto itemDto;
+        try {
+            itemDto = objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            return "Некорректная строка JSON";
+        }
+
+        if (itemDto == null) {
+            return "Некорректная строка JSON";
+        }
+
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    private String getError(byte[] body) {
+        try {
+            JsonNode response = objectMapper.readTree(body);
+            return response != null && response.hasNonNull("error") ? response.get("error").asText() : "Ошибка импорта";
+        } catch (IOException e) {
+            return "Ошибка импорта";
+        }
+    }
+}
\ No newline at end of file
@@ -3,10 +3,14 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
 import java.util.Map;
@@ -15,16 +19,24 @@ import java.util.Map;
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                             HttpClientProperties properties, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClientBuilder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                properties.getMode(),
+                responseCache,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getAllByOwnerId(int userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(int userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -32,7 +44,7 @@ public class ItemRequestClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAll(int userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAll(int userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -40,11 +52,11 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(int userId, int itemRequestId) {
-        return get("/" + itemRequestId, userId);
+    public Mono<ResponseEntity<Object>> getById(int userId, int itemRequestId, String ifNoneMatch) {
+        return getCached("/" + itemRequestId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> create(int userId, ItemRequestCreateDto requestDto) {
+    public Mono<ResponseEntity<Object>> create(int userId, ItemRequestCreateDto requestDto) {
         return post("", userId, requestDto);
     }
 }
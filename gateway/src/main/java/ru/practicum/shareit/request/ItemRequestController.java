@@ -1,9 +1,11 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
 import javax.validation.Valid;
@@ -17,28 +19,29 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllByOwnerId(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                  @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
-                                                  @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                        @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
+                                                        @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
         return itemRequestClient.getAllByOwnerId(userId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") int userId,
-                                         @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
-                                         @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-Id") int userId,
+                                               @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
+                                               @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
         return itemRequestClient.getAll(userId, from, size);
     }
 
     @GetMapping("/{itemRequestId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") int userId,
-                                          @PathVariable int itemRequestId) {
-        return itemRequestClient.getById(userId, itemRequestId);
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                @PathVariable int itemRequestId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemRequestClient.getById(userId, itemRequestId, ifNoneMatch);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") int userId,
-                                         @Valid @RequestBody ItemRequestCreateDto itemRequestCreateDto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") int userId,
+                                               @Valid @RequestBody ItemRequestCreateDto itemRequestCreateDto) {
         return itemRequestClient.create(userId, itemRequestCreateDto);
     }
 }
\ No newline at end of file
@@ -2,43 +2,76 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                      HttpClientProperties properties, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClientBuilder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                properties.getMode(),
+                responseCache,
+                API_PREFIX
+        );
+    }
+
+    public Mono<ResponseEntity<Object>> getAll(int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllWithCursor(int cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
         );
+        return get("?cursor={cursor}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> getAll() {
-        return get("");
+    public ResponseEntity<StreamingResponseBody> export() throws IOException {
+        return stream("/export", null, null, MediaType.APPLICATION_NDJSON);
     }
 
-    public ResponseEntity<Object> getById(int userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Object>> getById(int userId, String ifNoneMatch) {
+        return getCached("/" + userId, null, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> create(UserDto requestDto) {
+    public Mono<ResponseEntity<Object>> create(UserDto requestDto) {
         return post("", null, requestDto);
     }
 
-    public ResponseEntity<Object> update(int userId, UserDto userDto) {
+    public Mono<ResponseEntity<Object>> update(int userId, UserDto userDto) {
         return patch("/" + userId, userId, null, userDto);
     }
 
-    public void delete(int userId) {
-        delete("/" + userId);
+    public Mono<ResponseEntity<Object>> delete(int userId) {
+        return delete("/" + userId);
     }
 }
@@ -1,41 +1,64 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.io.IOException;
 
+@Validated
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
-        return userClient.getAll();
+    public Mono<ResponseEntity<Object>> getAll(@RequestParam(required = false, defaultValue = "0") @Min(0) int from,
+                                               @RequestParam(required = false, defaultValue = "20") @Min(1) @Max(MAX_PAGE_SIZE) int size) {
+        return userClient.getAll(from, size);
+    }
+
+    @GetMapping(params = "cursor")
+    public Mono<ResponseEntity<Object>> getAllWithCursor(@RequestParam @Min(0) int cursor,
+                                                         @RequestParam(required = false, defaultValue = "20") @Min(1) @Max(MAX_PAGE_SIZE) int size) {
+        return userClient.getAllWithCursor(cursor, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export() throws IOException {
+        return userClient.export();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getById(@PathVariable int userId) {
-        return userClient.getById(userId);
+    public Mono<ResponseEntity<Object>> getById(@PathVariable int userId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return userClient.getById(userId, ifNoneMatch);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody UserDto userDto) {
         return userClient.create(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@PathVariable int userId,
-                                         @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> update(@PathVariable int userId,
+                                               @RequestBody UserDto userDto) {
         return userClient.update(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public void delete(@PathVariable int userId) {
-        userClient.delete(userId);
+    public Mono<Void> delete(@PathVariable int userId) {
+        return userClient.delete(userId).then();
     }
 }
\ No newline at end of file
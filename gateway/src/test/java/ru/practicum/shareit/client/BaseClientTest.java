@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.codec.CodecsAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.ClientHttpConnectorAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class BaseClientTest {
+    private static final int LARGE_BODY_SIZE = 4 * 1024 * 1024;
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(CodecsAutoConfiguration.class,
+                    ClientHttpConnectorAutoConfiguration.class, WebClientAutoConfiguration.class))
+            .withUserConfiguration(HttpClientConfig.class);
+
+    private HttpServer server;
+    private byte[] largeBody;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        largeBody = new byte[LARGE_BODY_SIZE];
+        Arrays.fill(largeBody, (byte) 'a');
+        largeBody[0] = '"';
+        largeBody[largeBody.length - 1] = '"';
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, largeBody.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(largeBody);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ProxyMode.class)
+    void getTest_LargeBody(ProxyMode mode) {
+        contextRunner.run(context -> {
+            String serverUrl = "http://localhost:" + server.getAddress().getPort();
+            RestTemplate rest = new RestTemplateBuilder()
+                    .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                    .requestFactory(() -> context.getBean(ClientHttpRequestFactory.class))
+                    .build();
+            WebClient webClient = context.getBean(WebClient.Builder.class)
+                    .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl))
+                    .build();
+            TestClient client = new TestClient(rest, webClient, mode);
+
+            ResponseEntity<Object> response = client.getAll().block(Duration.ofSeconds(30));
+
+            assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+            assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8),
+                    equalTo(new String(largeBody, StandardCharsets.UTF_8)));
+        });
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest, WebClient webClient, ProxyMode mode) {
+            super(rest, webClient, mode, new ResponseCache(false, 1, Duration.ofSeconds(1), new SimpleMeterRegistry()),
+                    "/bookings");
+        }
+
+        Mono<ResponseEntity<Object>> getAll() {
+            return get("/bookings", 1);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdempotencyStoreTest {
+    private static final String KEY = "3b7c6a1e-5f0d-4c1b-9a8e-2d4f6b8c0e1a";
+
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore(100, Duration.ofMinutes(1),
+            new SimpleMeterRegistry());
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void executeTest_Replay() {
+        Map<String, Object> request = Map.of("name", "Item");
+
+        ResponseEntity<Object> first = idempotencyStore.execute(1, "POST /items", KEY, request,
+                respondWith(HttpStatus.OK)).block();
+        ResponseEntity<Object> replayed = idempotencyStore.execute(1, "POST /items", KEY, Map.of("name", "Item"),
+                respondWith(HttpStatus.OK)).block();
+
+        assertThat(calls.get(), equalTo(1));
+        assertThat(first.getHeaders().getFirst(IdempotencyStore.IDEMPOTENT_REPLAYED_HEADER), nullValue());
+        assertThat(replayed.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(replayed.getBody(), equalTo(first.getBody()));
+        assertThat(replayed.getHeaders().getFirst(IdempotencyStore.IDEMPOTENT_REPLAYED_HEADER), equalTo("true"));
+    }
+
+    @Test
+    void executeTest_InFlightDuplicate() {
+        Sinks.One<ResponseEntity<Object>> response = Sinks.one();
+        Supplier<Mono<ResponseEntity<Object>>> call = () -> Mono.defer(() -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        });
+
+        CompletableFuture<ResponseEntity<Object>> first = idempotencyStore.execute(1, "POST /bookings", KEY, "request", call)
+                .toFuture();
+        CompletableFuture<ResponseEntity<Object>> duplicate = idempotencyStore.execute(1, "POST /bookings", KEY, "request", call)
+                .toFuture();
+
+        assertThat(first.isDone(), equalTo(false));
+        assertThat(duplicate.isDone(), equalTo(false));
+
+        response.tryEmitValue(ResponseEntity.status(HttpStatus.CREATED).body("created"));
+
+        assertThat(calls.get(), equalTo(1));
+        assertThat(first.join().getStatusCode(), equalTo(HttpStatus.CREATED));
+        assertThat(duplicate.join().getStatusCode(), equalTo(HttpStatus.CREATED));
+        assertThat(duplicate.join().getHeaders().getFirst(IdempotencyStore.IDEMPOTENT_REPLAYED_HEADER), equalTo("true"));
+    }
+
+    @Test
+    void executeTest_ServerErrorIsNotStored() {
+        ResponseEntity<Object> failed = idempotencyStore.execute(1, "POST /items", KEY, "request",
+                respondWith(HttpStatus.SERVICE_UNAVAILABLE)).block();
+        ResponseEntity<Object> retried = idempotencyStore.execute(1, "POST /items", KEY, "request",
+                respondWith(HttpStatus.OK)).block();
+
+        assertThat(calls.get(), equalTo(2));
+        assertThat(failed.getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(retried.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(retried.getHeaders().getFirst(IdempotencyStore.IDEMPOTENT_REPLAYED_HEADER), nullValue());
+    }
+
+    @Test
+    void executeTest_ErrorIsNotStored() {
+        Supplier<Mono<ResponseEntity<Object>>> failingCall = () -> Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("Connection refused"));
+        });
+
+        assertThrows(IllegalStateException.class, () -> {
+            idempotencyStore.execute(1, "POST /items", KEY, "request", failingCall).block();
+        });
+
+        ResponseEntity<Object> retried = idempotencyStore.execute(1, "POST /items", KEY, "request",
+                respondWith(HttpStatus.OK)).block();
+
+        assertThat(calls.get(), equalTo(2));
+        assertThat(retried.getStatusCode(), equalTo(HttpStatus.OK));
+    }
+
+    @Test
+    void executeTest_DifferentRequest() {
+        idempotencyStore.execute(1, "POST /items", KEY, Map.of("name", "Item"), respondWith(HttpStatus.OK)).block();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
+            idempotencyStore.execute(1, "POST /items", KEY, Map.of("name", "Other item"), respondWith(HttpStatus.OK));
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(calls.get(), equalTo(1));
+    }
+
+    @Test
+    void executeTest_KeyScope() {
+        idempotencyStore.execute(1, "POST /items", KEY, "request", respondWith(HttpStatus.OK)).block();
+        idempotencyStore.execute(2, "POST /items", KEY, "request", respondWith(HttpStatus.OK)).block();
+        idempotencyStore.execute(1, "POST /bookings", KEY, "request", respondWith(HttpStatus.OK)).block();
+        idempotencyStore.execute(1, "POST /items", null, "request", respondWith(HttpStatus.OK)).block();
+        idempotencyStore.execute(1, "POST /items", null, "request", respondWith(HttpStatus.OK)).block();
+
+        assertThat(calls.get(), equalTo(5));
+    }
+
+    @Test
+    void executeTest_InvalidKey() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
+            idempotencyStore.execute(1, "POST /items", " ", "request", respondWith(HttpStatus.OK));
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+
+        e = assertThrows(ResponseStatusException.class, () -> {
+            idempotencyStore.execute(1, "POST /items", "k".repeat(256), "request", respondWith(HttpStatus.OK));
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+        assertThat(calls.get(), equalTo(0));
+    }
+
+    private Supplier<Mono<ResponseEntity<Object>>> respondWith(HttpStatus status) {
+        return () -> Mono.fromCallable(() -> ResponseEntity.status(status).body((Object) ("response " + calls.incrementAndGet())));
+    }
+}
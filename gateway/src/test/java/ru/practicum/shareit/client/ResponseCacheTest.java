@@ -0,0 +1,124 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ResponseCacheTest {
+    @Mock
+    private RestTemplate rest;
+
+    @Test
+    void invalidateTest() {
+        ResponseCache responseCache = getResponseCache(true);
+        String itemKey = ResponseCache.key("/items", "/1", 1);
+        String requestKey = ResponseCache.key("/requests", "/1", 1);
+        String bookingKey = ResponseCache.key("/bookings", "/1", 1);
+
+        responseCache.put("/items", responseCache.generation("/items"), itemKey, ResponseEntity.ok().build());
+        responseCache.put("/requests", responseCache.generation("/requests"), requestKey, ResponseEntity.ok().build());
+        responseCache.put("/bookings", responseCache.generation("/bookings"), bookingKey, ResponseEntity.ok().build());
+
+        responseCache.invalidate("/items");
+
+        assertThat(responseCache.get(itemKey), nullValue());
+        assertThat(responseCache.get(requestKey), nullValue());
+        assertThat(responseCache.get(bookingKey), notNullValue());
+
+        responseCache.invalidate("/bookings");
+
+        assertThat(responseCache.get(bookingKey), nullValue());
+    }
+
+    @Test
+    void putTest_StaleGeneration() {
+        ResponseCache responseCache = getResponseCache(true);
+        String key = ResponseCache.key("/items", "/1", 1);
+
+        long generation = responseCache.generation("/items");
+        responseCache.invalidate("/users");
+
+        assertThat(responseCache.generation("/items"), equalTo(generation + 1));
+
+        responseCache.put("/items", generation, key, ResponseEntity.ok().build());
+
+        assertThat(responseCache.get(key), nullValue());
+
+        responseCache.put("/items", responseCache.generation("/items"), key, ResponseEntity.ok().build());
+
+        assertThat(responseCache.get(key), notNullValue());
+    }
+
+    @Test
+    void disabledTest() {
+        ResponseCache responseCache = getResponseCache(false);
+        String key = ResponseCache.key("/items", "/1", 1);
+
+        responseCache.put("/items", responseCache.generation("/items"), key, ResponseEntity.ok().build());
+
+        assertThat(responseCache.get(key), nullValue());
+    }
+
+    @Test
+    void getCachedTest_NotModified() {
+        ResponseCache responseCache = getResponseCache(true);
+        TestClient client = new TestClient(rest, responseCache);
+
+        when(rest.exchange(eq("/1"), eq(HttpMethod.GET), any(HttpEntity.class), eq(byte[].class)))
+                .thenReturn(ResponseEntity.ok().eTag("\"3\"").body("{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+
+        ResponseEntity<Object> fetched = client.getById(1, null).block();
+        ResponseEntity<Object> notModified = client.getById(1, "\"3\"").block();
+        ResponseEntity<Object> weakNotModified = client.getById(1, "\"2\", W/\"3\"").block();
+        ResponseEntity<Object> changed = client.getById(1, "\"2\"").block();
+
+        assertThat(fetched.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(notModified.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(notModified.getHeaders().getETag(), equalTo("\"3\""));
+        assertThat(notModified.getBody(), nullValue());
+        assertThat(weakNotModified.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(changed.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(changed.getBody(), equalTo(fetched.getBody()));
+
+        verify(rest, times(1)).exchange(eq("/1"), eq(HttpMethod.GET), any(HttpEntity.class), eq(byte[].class));
+
+        responseCache.invalidate("/users");
+        client.getById(1, "\"3\"").block();
+
+        verify(rest, times(2)).exchange(eq("/1"), eq(HttpMethod.GET), any(HttpEntity.class), eq(byte[].class));
+    }
+
+    private static ResponseCache getResponseCache(boolean enabled) {
+        return new ResponseCache(enabled, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest, ResponseCache responseCache) {
+            super(rest, null, ProxyMode.BLOCKING, responseCache, "/users");
+        }
+
+        Mono<ResponseEntity<Object>> getById(int userId, String ifNoneMatch) {
+            return getCached("/" + userId, null, null, ifNoneMatch);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemImporterTest {
+    private static final String ITEM_1 = "{\"name\":\"Дрель\",\"description\":\"Аккумуляторная дрель\",\"available\":true}";
+    private static final String ITEM_2 = "{\"name\":\"Отвертка\",\"description\":\"Аккумуляторная отвертка\",\"available\":true}";
+    private static final String ITEM_3 = "{\"name\":\"Пила\",\"description\":\"Ручная пила\",\"available\":false}";
+
+    @Mock
+    private ItemClient itemClient;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ValidatorFactory validatorFactory;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void importItemsTest() throws IOException {
+        String input = ITEM_1 + "\n" +
+                "\n" +
+                "{\n" +
+                ITEM_2 + "\n" +
+                "{\"description\":\"Без имени\",\"available\":true}\n" +
+                ITEM_3 + "\n";
+
+        when(itemClient.importItems(eq(1), eq(ITEM_1 + "\n")))
+                .thenReturn(respond(HttpStatus.OK, "{\"line\":1,\"status\":200,\"id\":10}\n"));
+        when(itemClient.importItems(eq(1), eq(ITEM_2 + "\n")))
+                .thenReturn(respond(HttpStatus.OK, "{\"line\":1,\"status\":200,\"id\":11}\n"));
+        when(itemClient.importItems(eq(1), eq(ITEM_3 + "\n")))
+                .thenReturn(respond(HttpStatus.OK, "{\"line\":1,\"status\":409,\"error\":\"Конфликт\"}\n"));
+
+        List<JsonNode> results = importItems(input);
+
+        assertThat(results, equalTo(parse(
+                "{\"line\":1,\"status\":200,\"id\":10}",
+                "{\"line\":3,\"status\":400,\"error\":\"Некорректная строка JSON\"}",
+                "{\"line\":4,\"status\":200,\"id\":11}",
+                "{\"line\":5,\"status\":400,\"error\":\"Имя не должно быть пустым\"}",
+                "{\"line\":6,\"status\":409,\"error\":\"Конфликт\"}"
+        )));
+
+        verify(itemClient, times(3)).importItems(eq(1), anyString());
+    }
+
+    @Test
+    void importItemsTest_UpstreamFailure() throws IOException {
+        String input = ITEM_1 + "\n" + ITEM_2 + "\n" + ITEM_3 + "\n";
+
+        when(itemClient.importItems(eq(1), eq(ITEM_1 + "\n" + ITEM_2 + "\n")))
+                .thenReturn(Mono.error(new ResourceAccessException("Connection refused")));
+        when(itemClient.importItems(eq(1), eq(ITEM_3 + "\n")))
+                .thenReturn(respond(HttpStatus.OK, "{\"line\":1,\"status\":200,\"id\":12}\n"));
+
+        List<JsonNode> results = importItems(input);
+
+        assertThat(results, equalTo(parse(
+                "{\"line\":1,\"status\":502,\"error\":\"Сервер недоступен\"}",
+                "{\"line\":2,\"status\":502,\"error\":\"Сервер недоступен\"}",
+                "{\"line\":3,\"status\":200,\"id\":12}"
+        )));
+    }
+
+    @Test
+    void importItemsTest_UpstreamError() throws IOException {
+        String input = ITEM_1 + "\n";
+
+        when(itemClient.importItems(eq(1), eq(ITEM_1 + "\n")))
+                .thenReturn(respond(HttpStatus.NOT_FOUND, "{\"error\":\"Пользователь не найден\"}"));
+
+        List<JsonNode> results = importItems(input);
+
+        assertThat(results, equalTo(parse(
+                "{\"line\":1,\"status\":404,\"error\":\"Пользователь не найден\"}"
+        )));
+    }
+
+    private List<JsonNode> importItems(String input) throws IOException {
+        ItemImporter itemImporter = new ItemImporter(itemClient, objectMapper, validatorFactory.getValidator(), 2);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        itemImporter.importItems(1, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        return parse(output.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+
+    private List<JsonNode> parse(String... lines) throws IOException {
+        List<JsonNode> nodes = new ArrayList<>();
+        for (String line : lines) {
+            nodes.add(objectMapper.readTree(line));
+        }
+        return nodes;
+    }
+
+    private static Mono<ResponseEntity<Object>> respond(HttpStatus status, String body) {
+        return Mono.just(ResponseEntity.status(status).body(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
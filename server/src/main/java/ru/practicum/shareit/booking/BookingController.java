@@ -1,19 +1,31 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     private final BookingService bookingService;
+    private final BookingExporter bookingExporter;
 
     @GetMapping("/{bookingId}")
     public BookingResponseDto getById(@PathVariable int bookingId,
@@ -37,16 +49,70 @@ public class BookingController {
         return bookingService.getAllByStateForOwner(state, userId, from, size);
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<BookingResponseDto>> getAllByStateWithCursor(@RequestParam(required = false, defaultValue = "ALL") RequestBookingStatus state,
+                                                                            @RequestParam String cursor,
+                                                                            @RequestParam(required = false, defaultValue = "20") int size,
+                                                                            @RequestHeader("X-Sharer-User-Id") int userId) {
+        return withNextCursor(bookingService.getAllByStateWithCursor(state, userId, BookingCursor.decode(cursor), size), size);
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public ResponseEntity<List<BookingResponseDto>> getAllByStateForOwnerWithCursor(@RequestParam(required = false, defaultValue = "ALL") RequestBookingStatus state,
+                                                                                    @RequestParam String cursor,
+                                                                                    @RequestParam(required = false, defaultValue = "20") int size,
+                                                                                    @RequestHeader("X-Sharer-User-Id") int userId) {
+        return withNextCursor(bookingService.getAllByStateForOwnerWithCursor(state, userId, BookingCursor.decode(cursor), size), size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false, defaultValue = "NDJSON") BookingExportFormat format,
+                                                        @RequestHeader("X-Sharer-User-Id") int userId) {
+        return export(BookingRole.BOOKER, format, userId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportForOwner(@RequestParam(required = false, defaultValue = "NDJSON") BookingExportFormat format,
+                                                                @RequestHeader("X-Sharer-User-Id") int userId) {
+        return export(BookingRole.OWNER, format, userId);
+    }
+
     @PostMapping
     public BookingResponseDto create(@RequestHeader("X-Sharer-User-Id") int userId,
                                      @RequestBody BookingRequestDto bookingRequestDto) {
         return bookingService.create(bookingRequestDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createAll(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                 @RequestBody List<BookingRequestDto> bookingRequestDtos) {
+        return bookingService.createAll(bookingRequestDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResponseDto approve(@PathVariable int bookingId,
                                       @RequestParam boolean approved,
                                       @RequestHeader("X-Sharer-User-Id") int userId) {
         return bookingService.approve(bookingId, approved, userId);
     }
+
+    private ResponseEntity<StreamingResponseBody> export(BookingRole role, BookingExportFormat format, int userId) {
+        bookingService.checkUserExists(userId);
+
+        StreamingResponseBody body = outputStream -> bookingExporter.export(role, userId, format, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(format == BookingExportFormat.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings, int size) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+
+        if (bookings.size() == size) {
+            responseBuilder.header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+
+        return responseBuilder.body(bookings);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes a user's bookings as NDJSON or CSV while they are read in chunks.
+ *
+ * <p>Each chunk is read in its own short transaction and written out before the next one is read, so a slow client
+ * holds no database connection and memory use does not depend on the number of exported bookings.
+ *
+ * <p>Chunks follow index order rather than start date: a booker's bookings are written by booking id, an owner's by
+ * item id and then booking id.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingExporter {
+    private static final String CSV_HEADER = "id,start,end,status,bookerId,itemId,itemName\n";
+
+    private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+
+    public void export(BookingRole role, int userId, BookingExportFormat format, OutputStream output) throws IOException {
+        if (format == BookingExportFormat.CSV) {
+            writeCsv(role, userId, output);
+        } else {
+            writeNdjson(role, userId, output);
+        }
+    }
+
+    private void writeNdjson(BookingRole role, int userId, OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(null);
+            bookingService.export(role, userId, booking -> {
+                try {
+                    generator.writeObject(booking);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeCsv(BookingRole role, int userId, OutputStream output) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            bookingService.export(role, userId, booking -> {
+                try {
+                    writer.write(toCsv(booking));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static String toCsv(BookingExportDto booking) {
+        return booking.getId() + "," +
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(booking.getStart()) + "," +
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(booking.getEnd()) + "," +
+                booking.getStatus() + "," +
+                booking.getBookerId() + "," +
+                booking.getItemId() + "," +
+                escapeCsv(booking.getItemName()) + "\n";
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
\ No newline at end of file
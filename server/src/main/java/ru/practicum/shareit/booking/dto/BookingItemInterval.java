@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingItemInterval {
+    private Integer itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
\ No newline at end of file
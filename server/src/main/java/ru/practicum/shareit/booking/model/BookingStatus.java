@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.Set;
+
 public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED;
+
+    public static final Set<BookingStatus> ACTIVE = Set.of(WAITING, APPROVED);
 }
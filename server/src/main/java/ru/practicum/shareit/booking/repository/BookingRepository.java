@@ -1,37 +1,80 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingItemInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
-    List<Booking> findAllByUserIdOrderByStartDesc(int userId, Pageable pageable);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    List<Booking> findAllByUserIdAndEndBeforeOrderByStartDesc(int userId, LocalDateTime endDateTime, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingSearchRepository {
+    @Override
+    @EntityGraph(attributePaths = "item")
+    Optional<Booking> findById(Integer id);
 
-    List<Booking> findAllByUserIdAndStartAfterOrderByStartDesc(int userId, LocalDateTime startDateTime, Pageable pageable);
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto$ItemBooking(b.id, b.user.id) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED AND b.start > :currentTime " +
+            "ORDER BY b.start ASC, b.id ASC")
+    List<ItemDto.ItemBooking> findNextByItemId(int itemId, LocalDateTime currentTime, Pageable pageable);
 
-    List<Booking> findAllByUserIdAndStartBeforeAndEndAfterOrderByStartDesc(int userId, LocalDateTime startDateTime, LocalDateTime endDateTime, Pageable pageable);
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto$ItemBooking(b.id, b.user.id) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.start < :currentTime " +
+            "ORDER BY b.end DESC, b.id ASC")
+    List<ItemDto.ItemBooking> findLastByItemId(int itemId, LocalDateTime currentTime, Pageable pageable);
 
-    List<Booking> findAllByUserIdAndStatusOrderByStartDesc(int userId, BookingStatus bookingStatus, Pageable pageable);
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED AND b.start > :currentTime " +
+            "AND b.start = (SELECT MIN(nb.start) FROM Booking nb " +
+            "WHERE nb.item = b.item AND nb.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED AND nb.start > :currentTime)")
+    List<Booking> findAllNextByItemIdIn(Collection<Integer> itemIds, LocalDateTime currentTime);
 
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(int ownerId, Pageable pageable);
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.start < :currentTime " +
+            "AND b.end = (SELECT MAX(lb.end) FROM Booking lb WHERE lb.item = b.item AND lb.start < :currentTime)")
+    List<Booking> findAllLastByItemIdIn(Collection<Integer> itemIds, LocalDateTime currentTime);
 
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(int ownerId, LocalDateTime endDateTime, Pageable pageable);
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.user.id = :userId AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED AND b.end < :currentTime")
+    List<Booking> findAllApprovedByItemIdAndUserId(int itemId, int userId, LocalDateTime currentTime);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(int ownerId, LocalDateTime startDateTime, Pageable pageable);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :currentTime")
+    List<BookingInterval> findAllIntervalsByItemIdAndStatusIn(int itemId, Collection<BookingStatus> statuses, LocalDateTime currentTime);
 
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(int ownerId, LocalDateTime startDateTime, LocalDateTime endDateTime, Pageable pageable);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingItemInterval(b.item.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status IN :statuses AND b.end > :from AND b.start < :to")
+    List<BookingItemInterval> findAllIntervalsByItemIdIn(Collection<Integer> itemIds, Collection<BookingStatus> statuses,
+                                                         LocalDateTime from, LocalDateTime to);
 
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(int ownerId, BookingStatus status, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :from AND b.start < :to " +
+            "ORDER BY b.start")
+    Stream<BookingInterval> streamIntervalsByItemIdAndStatusIn(int itemId, Collection<BookingStatus> statuses,
+                                                               LocalDateTime from, LocalDateTime to);
 
-    List<Booking> findAllByItemId(int itemId);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingExportDto(b.id, b.start, b.end, b.status, b.user.id, i.id, i.name) " +
+            "FROM Booking b JOIN b.item i WHERE b.user.id = :userId AND b.id > :afterId ORDER BY b.id")
+    List<BookingExportDto> findExportChunkByBookerId(int userId, int afterId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.user.id = :userId AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED AND b.end < :currentTime")
-    List<Booking> findAllApprovedByItemIdAndUserId(int itemId, int userId, LocalDateTime currentTime);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingExportDto(b.id, b.start, b.end, b.status, b.user.id, i.id, i.name) " +
+            "FROM Booking b JOIN b.item i WHERE i.owner.id = :userId " +
+            "AND (i.id > :afterItemId OR (i.id = :afterItemId AND b.id > :afterId)) ORDER BY i.id, b.id")
+    List<BookingExportDto> findExportChunkByOwnerId(int userId, int afterItemId, int afterId, Pageable pageable);
+
+    boolean existsByItemIdAndStatusInAndEndAfterAndStartBefore(int itemId, Collection<BookingStatus> statuses,
+                                                               LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.RequestBookingStatus;
+import ru.practicum.shareit.booking.model.BookingRole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingSearchRepository {
+    List<BookingResponseDto> findAllByState(BookingRole role, RequestBookingStatus state, int userId,
+                                            LocalDateTime currentTime, BookingCursor cursor, Pageable pageable);
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.RequestBookingStatus;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BookingSearchRepositoryImpl implements BookingSearchRepository {
+    private static final String SELECT = "SELECT b.id AS id, b.start AS startDate, b.end AS endDate, b.status AS status, " +
+            "b.user.id AS bookerId, i.id AS itemId, i.name AS itemName " +
+            "FROM Booking b JOIN b.item i ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingResponseDto> findAllByState(BookingRole role, RequestBookingStatus state, int userId,
+                                                   LocalDateTime currentTime, BookingCursor cursor, Pageable pageable) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        jpql.append(role == BookingRole.OWNER ? "WHERE i.owner.id = :userId " : "WHERE b.user.id = :userId ");
+
+        switch (state) {
+            case ALL:
+                break;
+            case PAST:
+                jpql.append("AND b.end < :currentTime ");
+                break;
+            case FUTURE:
+                jpql.append("AND b.start > :currentTime ");
+                break;
+            case CURRENT:
+                jpql.append("AND b.start < :currentTime AND b.end > :currentTime ");
+                break;
+            case WAITING:
+            case REJECTED:
+                jpql.append("AND b.status = :status ");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown booking state: " + state);
+        }
+
+        if (cursor != null) {
+            jpql.append("AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) ");
+        }
+
+        jpql.append("ORDER BY b.start DESC, b.id DESC");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("userId", userId)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+
+        switch (state) {
+            case PAST:
+            case FUTURE:
+            case CURRENT:
+                query.setParameter("currentTime", currentTime);
+                break;
+            case WAITING:
+                query.setParameter("status", BookingStatus.WAITING);
+                break;
+            case REJECTED:
+                query.setParameter("status", BookingStatus.REJECTED);
+                break;
+            default:
+                break;
+        }
+
+        if (cursor != null) {
+            query.setParameter("cursorStart", cursor.getStart())
+                    .setParameter("cursorId", cursor.getId());
+        }
+
+        return query.getResultList().stream()
+                .map(BookingSearchRepositoryImpl::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private static BookingResponseDto toDto(Tuple tuple) {
+        return BookingResponseDto.builder()
+                .id(tuple.get("id", Integer.class))
+                .start(tuple.get("startDate", LocalDateTime.class))
+                .end(tuple.get("endDate", LocalDateTime.class))
+                .status(tuple.get("status", BookingStatus.class))
+                .booker(new BookingResponseDto.BookingResponseUserDto(tuple.get("bookerId", Integer.class)))
+                .item(new BookingResponseDto.BookingResponseItemDto(tuple.get("itemId", Integer.class),
+                        tuple.get("itemName", String.class)))
+                .build();
+    }
+}
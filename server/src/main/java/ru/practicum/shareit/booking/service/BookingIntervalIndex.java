@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Per-item index of the WAITING and APPROVED bookings that have not ended yet, used to reject overlapping bookings
+ * before touching the database.
+ *
+ * <p>Active bookings of one item never overlap, so intervals ordered by start are ordered by end as well and a single
+ * floor lookup answers an overlap query. Callers hold the item's row lock, and a new interval is added before the
+ * writing transaction commits, so the next holder of the lock sees it; a rolled-back write drops the item's entry.
+ * A loaded entry is therefore trusted without querying the database, and when the index is disabled the same question
+ * goes to the database. On PostgreSQL the exclusion constraint on bookings remains the final guard.
+ */
+@Component
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final Cache<Integer, ItemIntervals> cache;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.interval-index.enabled:false}") boolean enabled,
+                                @Value("${shareit.booking.interval-index.max-items:10000}") long maxItems,
+                                @Value("${shareit.booking.interval-index.ttl:10m}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "booking-intervals");
+    }
+
+    public boolean overlaps(int itemId, LocalDateTime start, LocalDateTime end) {
+        if (!enabled) {
+            return bookingRepository.existsByItemIdAndStatusInAndEndAfterAndStartBefore(itemId, BookingStatus.ACTIVE,
+                    start, end);
+        }
+
+        ItemIntervals intervals = cache.get(itemId, id -> new ItemIntervals(bookingRepository
+                .findAllIntervalsByItemIdAndStatusIn(id, BookingStatus.ACTIVE, LocalDateTime.now())));
+        return intervals.overlaps(start, end, LocalDateTime.now());
+    }
+
+    public void add(int itemId, BookingInterval interval) {
+        onCommit(itemId, true, () -> {
+            ItemIntervals intervals = cache.getIfPresent(itemId);
+            if (intervals != null) {
+                intervals.add(interval);
+            }
+        });
+    }
+
+    public void remove(int itemId, BookingInterval interval) {
+        onCommit(itemId, false, () -> {
+            ItemIntervals intervals = cache.getIfPresent(itemId);
+            if (intervals != null) {
+                intervals.remove(interval);
+            }
+        });
+    }
+
+    private void onCommit(int itemId, boolean beforeCommit, Runnable action) {
+        if (!enabled) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (beforeCommit) {
+                    action.run();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    cache.invalidate(itemId);
+                } else if (!beforeCommit) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private static class ItemIntervals {
+        private final NavigableMap<LocalDateTime, BookingInterval> byStart = new TreeMap<>();
+
+        ItemIntervals(Iterable<BookingInterval> intervals) {
+            intervals.forEach(this::add);
+        }
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end, LocalDateTime currentTime) {
+            while (!byStart.isEmpty() && !byStart.firstEntry().getValue().getEnd().isAfter(currentTime)) {
+                byStart.pollFirstEntry();
+            }
+
+            Map.Entry<LocalDateTime, BookingInterval> floor = byStart.lowerEntry(end);
+            return floor != null && floor.getValue().getEnd().isAfter(start);
+        }
+
+        synchronized void add(BookingInterval interval) {
+            byStart.put(interval.getStart(), interval);
+        }
+
+        synchronized void remove(BookingInterval interval) {
+            byStart.computeIfPresent(interval.getStart(),
+                    (start, stored) -> stored.getId().equals(interval.getId()) ? null : stored);
+        }
+    }
+}
\ No newline at end of file
@@ -1,10 +1,15 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
+import ru.practicum.shareit.booking.model.BookingRole;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingResponseDto getById(int bookingId, int userId);
@@ -13,7 +18,17 @@ public interface BookingService {
 
     List<BookingResponseDto> getAllByStateForOwner(RequestBookingStatus requestBookingStatus, int userId, int from, int size);
 
+    List<BookingResponseDto> getAllByStateWithCursor(RequestBookingStatus requestBookingStatus, int userId, BookingCursor cursor, int size);
+
+    List<BookingResponseDto> getAllByStateForOwnerWithCursor(RequestBookingStatus requestBookingStatus, int userId, BookingCursor cursor, int size);
+
+    void checkUserExists(int userId);
+
+    void export(BookingRole role, int userId, Consumer<BookingExportDto> consumer);
+
     BookingResponseDto create(BookingRequestDto bookingRequestDto, int userId);
 
+    List<BookingBatchResultDto> createAll(List<BookingRequestDto> bookingRequestDtos, int userId);
+
     BookingResponseDto approve(int bookingId, boolean approved, int userId);
 }
@@ -1,41 +1,66 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingItemInterval;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.util.ServiceUtil;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional(readOnly = true)
     public BookingResponseDto getById(int bookingId, int userId) {
         Booking booking = ServiceUtil.getBookingOrThrowNotFound(bookingId, bookingRepository);
-        ServiceUtil.getUserOrThrowNotFound(userId, userRepository);
+        ServiceUtil.checkUserExistsOrThrowNotFound(userId, userCache);
 
         if (!(booking.getUser().getId() == userId || booking.getItem().getOwner().getId() == userId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Не найдено подходящих бронирований для пользователя " + userId);
@@ -47,87 +72,78 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public List<BookingResponseDto> getAllByState(RequestBookingStatus requestBookingStatus, int userId, int from, int size) {
-        ServiceUtil.getUserOrThrowNotFound(userId, userRepository);
-        Pageable pageable = PageRequest.of(from / size, size);
-
-        switch (requestBookingStatus) {
-            case ALL:
-                return bookingRepository.findAllByUserIdOrderByStartDesc(userId, pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findAllByUserIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findAllByUserIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllByUserIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, LocalDateTime.now(), LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.findAllByUserIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING, pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findAllByUserIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED, pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            default:
-                throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, "Неизвестный статус бронирования");
-        }
+        ServiceUtil.checkUserExistsOrThrowNotFound(userId, userCache);
+        return findAllByState(BookingRole.BOOKER, requestBookingStatus, userId, null, PageRequest.of(from / size, size));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<BookingResponseDto> getAllByStateForOwner(RequestBookingStatus requestBookingStatus, int userId, int from, int size) {
-        ServiceUtil.getUserOrThrowNotFound(userId, userRepository);
-        Pageable pageable = PageRequest.of(from / size, size);
-
-        switch (requestBookingStatus) {
-            case ALL:
-                return bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, LocalDateTime.now(), LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING, pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED, pageable).stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            default:
-                throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, "Неизвестный статус бронирования");
+        ServiceUtil.checkUserExistsOrThrowNotFound(userId, userCache);
+        return findAllByState(BookingRole.OWNER, requestBookingStatus, userId, null, PageRequest.of(from / size, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getAllByStateWithCursor(RequestBookingStatus requestBookingStatus, int userId, BookingCursor cursor, int size) {
+        ServiceUtil.checkPageSize(size);
+        ServiceUtil.checkUserExistsOrThrowNotFound(userId, userCache);
+        return findAllByState(BookingRole.BOOKER, requestBookingStatus, userId, cursor, PageRequest.of(0, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getAllByStateForOwnerWithCursor(RequestBookingStatus requestBookingStatus, int userId, BookingCursor cursor, int size) {
+        ServiceUtil.checkPageSize(size);
+        ServiceUtil.checkUserExistsOrThrowNotFound(userId, userCache);
+        return findAllByState(BookingRole.OWNER, requestBookingStatus, userId, cursor, PageRequest.of(0, size));
+    }
+
+    private List<BookingResponseDto> findAllByState(BookingRole role, RequestBookingStatus requestBookingStatus, int userId,
+                                                    BookingCursor cursor, Pageable pageable) {
+        if (requestBookingStatus == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, "Неизвестный статус бронирования");
         }
+
+        return bookingRepository.findAllByState(role, requestBookingStatus, userId, LocalDateTime.now(), cursor, pageable);
+    }
+
+    @Override
+    public void checkUserExists(int userId) {
+        ServiceUtil.checkUserExistsOrThrowNotFound(userId, userCache);
+    }
+
+    @Override
+    public void export(BookingRole role, int userId, Consumer<BookingExportDto> consumer) {
+        int afterItemId = 0;
+        int afterId = 0;
+        List<BookingExportDto> chunk;
+
+        do {
+            Pageable pageable = PageRequest.of(0, EXPORT_CHUNK_SIZE);
+            chunk = role == BookingRole.OWNER
+                    ? bookingRepository.findExportChunkByOwnerId(userId, afterItemId, afterId, pageable)
+                    : bookingRepository.findExportChunkByBookerId(userId, afterId, pageable);
+            chunk.forEach(consumer);
+            if (!chunk.isEmpty()) {
+                BookingExportDto last = chunk.get(chunk.size() - 1);
+                afterItemId = last.getItemId();
+                afterId = last.getId();
+            }
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
     }
 
     @Override
     @Transactional
     public BookingResponseDto create(BookingRequestDto bookingRequestDto, int userId) {
-        User user = ServiceUtil.getUserOrThrowNotFound(userId, userRepository);
-        Item item = ServiceUtil.getItemOrThrowNotFound(bookingRequestDto.getItemId(), itemRepository);
+        User user = ServiceUtil.getUserReferenceOrThrowNotFound(userId, userCache, userRepository);
+        Item item = itemRepository.findByIdForUpdate(bookingRequestDto.getItemId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Вещь не найдена"));
 
-        if (!item.getAvailable()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Вещь недоступна для бронирования");
-        }
+        checkCanBook(item, userId);
 
-        if (item.getOwner().getId() == userId) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Владелец не может бронировать свою вещь");
+        if (bookingIntervalIndex.overlaps(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Вещь уже забронирована на выбранные даты");
         }
 
         Booking booking = BookingMapper.fromDto(bookingRequestDto);
@@ -135,14 +151,116 @@ public class BookingServiceImpl implements BookingService {
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
 
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        try {
+            Booking saved = bookingRepository.save(booking);
+            bookingIntervalIndex.add(item.getId(), toInterval(saved));
+            return BookingMapper.toDto(saved);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Вещь уже забронирована на выбранные даты");
+        }
+    }
+
+    @Override
+    public List<BookingBatchResultDto> createAll(List<BookingRequestDto> bookingRequestDtos, int userId) {
+        try {
+            return transactionTemplate.execute(status -> createAllInTransaction(bookingRequestDtos, userId));
+        } catch (DataIntegrityViolationException e) {
+            List<BookingBatchResultDto> results = new ArrayList<>(bookingRequestDtos.size());
+            for (BookingRequestDto bookingRequestDto : bookingRequestDtos) {
+                results.add(createOne(bookingRequestDto, userId));
+            }
+            return results;
+        }
+    }
+
+    private BookingBatchResultDto createOne(BookingRequestDto bookingRequestDto, int userId) {
+        try {
+            return transactionTemplate.execute(status ->
+                    createAllInTransaction(Collections.singletonList(bookingRequestDto), userId).get(0));
+        } catch (DataIntegrityViolationException e) {
+            return BookingBatchResultDto.builder()
+                    .status(HttpStatus.CONFLICT.value())
+                    .error("Вещь уже забронирована на выбранные даты")
+                    .build();
+        }
+    }
+
+    private List<BookingBatchResultDto> createAllInTransaction(List<BookingRequestDto> bookingRequestDtos, int userId) {
+        User user = ServiceUtil.getUserReferenceOrThrowNotFound(userId, userCache, userRepository);
+
+        List<BookingRequestDto> presentDtos = bookingRequestDtos.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Set<Integer> itemIds = presentDtos.stream()
+                .map(BookingRequestDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Item> items = itemIds.isEmpty() ? Map.of() : itemRepository.findAllByIdInForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        LocalDateTime currentTime = LocalDateTime.now();
+        Map<Integer, NavigableMap<LocalDateTime, LocalDateTime>> bookedIntervals = getBookedIntervals(items.keySet(),
+                presentDtos, currentTime);
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingRequestDtos.size());
+        List<Booking> bookings = new ArrayList<>();
+        List<BookingBatchResultDto> createdResults = new ArrayList<>();
+
+        for (BookingRequestDto bookingRequestDto : bookingRequestDtos) {
+            try {
+                if (bookingRequestDto == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Бронирование не должно быть пустым");
+                }
+                checkInterval(bookingRequestDto, currentTime);
+
+                Item item = items.get(bookingRequestDto.getItemId());
+                if (item == null) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Вещь не найдена");
+                }
+                checkCanBook(item, userId);
+
+                NavigableMap<LocalDateTime, LocalDateTime> itemIntervals = bookedIntervals.computeIfAbsent(item.getId(),
+                        id -> new TreeMap<>());
+                if (overlaps(itemIntervals, bookingRequestDto.getStart(), bookingRequestDto.getEnd())) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Вещь уже забронирована на выбранные даты");
+                }
+                itemIntervals.put(bookingRequestDto.getStart(), bookingRequestDto.getEnd());
+
+                Booking booking = BookingMapper.fromDto(bookingRequestDto);
+                booking.setUser(user);
+                booking.setItem(item);
+                booking.setStatus(BookingStatus.WAITING);
+                bookings.add(booking);
+
+                BookingBatchResultDto result = BookingBatchResultDto.builder()
+                        .status(HttpStatus.OK.value())
+                        .build();
+                createdResults.add(result);
+                results.add(result);
+            } catch (ResponseStatusException e) {
+                results.add(BookingBatchResultDto.builder()
+                        .status(e.getStatus().value())
+                        .error(e.getReason())
+                        .build());
+            }
+        }
+
+        bookingRepository.saveAllAndFlush(bookings);
+
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            bookingIntervalIndex.add(booking.getItem().getId(), toInterval(booking));
+            createdResults.get(i).setBooking(BookingMapper.toDto(booking));
+        }
+
+        return results;
     }
 
     @Override
     @Transactional
     public BookingResponseDto approve(int bookingId, boolean approved, int userId) {
         Booking booking = ServiceUtil.getBookingOrThrowNotFound(bookingId, bookingRepository);
-        ServiceUtil.getUserOrThrowNotFound(userId, userRepository);
+        ServiceUtil.checkUserExistsOrThrowNotFound(userId, userCache);
 
         if (booking.getItem().getOwner().getId() != userId) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Подтверждение доступно только для владельца вещи");
@@ -153,7 +271,79 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        if (!approved) {
+            bookingIntervalIndex.remove(booking.getItem().getId(), toInterval(booking));
+        }
 
         return BookingMapper.toDto(bookingRepository.save(booking));
     }
+
+    private Map<Integer, NavigableMap<LocalDateTime, LocalDateTime>> getBookedIntervals(Set<Integer> itemIds,
+                                                                                      List<BookingRequestDto> bookingRequestDtos,
+                                                                                      LocalDateTime currentTime) {
+        Map<Integer, NavigableMap<LocalDateTime, LocalDateTime>> bookedIntervals = new HashMap<>();
+
+        LocalDateTime from = bookingRequestDtos.stream()
+                .map(BookingRequestDto::getStart)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(currentTime);
+        LocalDateTime to = bookingRequestDtos.stream()
+                .map(BookingRequestDto::getEnd)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(currentTime);
+
+        if (itemIds.isEmpty() || !to.isAfter(from)) {
+            return bookedIntervals;
+        }
+
+        for (BookingItemInterval interval : bookingRepository.findAllIntervalsByItemIdIn(itemIds, BookingStatus.ACTIVE, from, to)) {
+            bookedIntervals.computeIfAbsent(interval.getItemId(), id -> new TreeMap<>())
+                    .merge(interval.getStart(), interval.getEnd(), (left, right) -> left.isAfter(right) ? left : right);
+        }
+
+        return bookedIntervals;
+    }
+
+    private static boolean overlaps(NavigableMap<LocalDateTime, LocalDateTime> intervals, LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> floor = intervals.lowerEntry(end);
+        return floor != null && floor.getValue().isAfter(start);
+    }
+
+    private static void checkInterval(BookingRequestDto bookingRequestDto, LocalDateTime currentTime) {
+        if (bookingRequestDto.getItemId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ID вещи не может быть пустым");
+        }
+
+        if (bookingRequestDto.getStart() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Время старта не может быть пустым");
+        }
+
+        if (bookingRequestDto.getEnd() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Время окончания не может быть пустым");
+        }
+
+        if (!bookingRequestDto.getStart().isAfter(currentTime)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Время старта должно быть в будущем");
+        }
+
+        if (!bookingRequestDto.getEnd().isAfter(bookingRequestDto.getStart())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Время окончания должно быть после старта");
+        }
+    }
+
+    private static void checkCanBook(Item item, int userId) {
+        if (!item.getAvailable()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Вещь недоступна для бронирования");
+        }
+
+        if (item.getOwner().getId() == userId) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Владелец не может бронировать свою вещь");
+        }
+    }
+
+    private static BookingInterval toInterval(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd());
+    }
 }
@@ -1,11 +1,22 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -13,6 +24,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+    private final ItemImporter itemImporter;
 
     @PostMapping
     public ItemDto create(@RequestHeader("X-Sharer-User-Id") int userId,
@@ -20,6 +33,16 @@ public class ItemController {
         return itemService.create(itemDto, userId);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importItems(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                             InputStream input) {
+        StreamingResponseBody body = outputStream -> itemImporter.importItems(userId, input, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createComment(@PathVariable int itemId,
                                     @RequestHeader("X-Sharer-User-Id") int userId,
@@ -29,10 +52,42 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ItemDto getById(@RequestHeader("X-Sharer-User-Id") int userId,
-                           @PathVariable int itemId) {
+                           @PathVariable int itemId,
+                           WebRequest request) {
+        if (request.checkNotModified(itemService.getEntityTag(userId, itemId))) {
+            return null;
+        }
         return itemService.getById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<StreamingResponseBody> getAvailability(@PathVariable int itemId,
+                                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                 WebRequest request) {
+        if (request.checkNotModified(itemService.getAvailabilityEntityTag(itemId, from, to))) {
+            return null;
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                itemService.getAvailability(itemId, from, to, window -> {
+                    try {
+                        generator.writeObject(window);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @GetMapping
     public List<ItemDto> getAllByOwnerId(@RequestHeader("X-Sharer-User-Id") int userId,
                                          @RequestParam(required = false, defaultValue = "0") int from,
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates items from an NDJSON upload, one JSON object per line.
+ *
+ * <p>Lines are read as they arrive and handed to {@link ItemService#createAll} in chunks, so every chunk is a separate
+ * transaction and at most one chunk is held in memory. A result line is written for every non-blank input line, in
+ * input order, as soon as its chunk is done.
+ */
+@Component
+public class ItemImporter {
+    private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ItemImporter(ItemService itemService, ObjectMapper objectMapper,
+                        @Value("${shareit.item.import.chunk-size:500}") int chunkSize) {
+        this.itemService = itemService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public void importItems(int userId, InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<ItemImportResultDto> results = new ArrayList<>(chunkSize);
+        List<ItemDto> itemDtos = new ArrayList<>(chunkSize);
+
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            ItemImportResultDto result = ItemImportResultDto.builder()
+                    .line(lineNumber)
+                    .build();
+            results.add(result);
+
+            ItemDto itemDto = parse(line);
+            if (itemDto == null) {
+                result.setStatus(HttpStatus.BAD_REQUEST.value());
+                result.setError("Некорректная строка JSON");
+            } else {
+                itemDtos.add(itemDto);
+            }
+
+            if (results.size() == chunkSize) {
+                createChunk(userId, itemDtos, results, output);
+                results = new ArrayList<>(chunkSize);
+                itemDtos = new ArrayList<>(chunkSize);
+            }
+        }
+
+        createChunk(userId, itemDtos, results, output);
+    }
+
+    private void createChunk(int userId, List<ItemDto> itemDtos, List<ItemImportResultDto> results,
+                             OutputStream output) throws IOException {
+        if (!itemDtos.isEmpty()) {
+            List<ItemImportResultDto> created;
+            try {
+                created = itemService.createAll(itemDtos, userId);
+            } catch (ResponseStatusException e) {
+                created = new ArrayList<>(itemDtos.size());
+                for (int i = 0; i < itemDtos.size(); i++) {
+                    created.add(ItemImportResultDto.builder()
+                            .status(e.getStatus().value())
+                            .error(e.getReason())
+                            .build());
+                }
+            }
+
+            int next = 0;
+            for (ItemImportResultDto result : results) {
+                if (result.getStatus() == null) {
+                    ItemImportResultDto createdResult = created.get(next++);
+                    result.setStatus(createdResult.getStatus());
+                    result.setError(createdResult.getError());
+                    result.setItem(createdResult.getItem());
+                }
+            }
+        }
+
+        for (ItemImportResultDto result : results) {
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write('\n');
+        }
+        output.flush();
+    }
+
+    private ItemDto parse(String line) {
+        try {
+            return objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
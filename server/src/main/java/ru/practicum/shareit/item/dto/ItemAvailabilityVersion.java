@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemAvailabilityVersion {
+    private Long bookingCount;
+    private Long bookingIdSum;
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemVersion {
+    private Integer version;
+    private Integer ownerId;
+    private Long commentCount;
+    private Long commentAuthorVersions;
+    private Long pastBookingCount;
+    private Long nextBookingCount;
+}
\ No newline at end of file
@@ -2,19 +2,74 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemAvailabilityVersion;
+import ru.practicum.shareit.item.dto.ItemVersion;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.dto.ItemRequestGetResponseDto;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Item> findAllByOwnerId(int ownerId, Pageable pageable);
 
     @Query("select i from Item i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
-            "and i.available = true ")
+            "and i.available = true " +
+            "order by i.id")
     List<Item> findBySearchText(String searchText, Pageable pageable);
 
-    List<Item> findAllByItemRequestId(int requestId);
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.available " +
+            "AND (i.item_name ILIKE CONCAT('%', :searchText, '%') " +
+            "OR i.description ILIKE CONCAT('%', :searchText, '%')) " +
+            "ORDER BY i.item_id",
+            nativeQuery = true)
+    List<Item> findBySearchTextTrigram(String searchText, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemRequestGetResponseDto$RequestedItem(i.id, i.name, i.description, i.available, i.itemRequest.id) " +
+            "FROM Item i WHERE i.itemRequest.id IN :requestIds")
+    List<ItemRequestGetResponseDto.RequestedItem> findAllRequestedItemsByItemRequestIdIn(Collection<Integer> requestIds);
+
+    @Query("SELECT MAX(i.id) FROM Item i")
+    Integer findMaxId();
+
+    @Query("SELECT new ru.practicum.shareit.item.search.ItemSearchIndex$IndexedItem(i.id, i.name, i.description, i.available) " +
+            "FROM Item i WHERE i.id BETWEEN :fromId AND :toId")
+    List<ItemSearchIndex.IndexedItem> findAllIndexedItemsByIdBetween(int fromId, int toId);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemVersion(i.version, i.owner.id, " +
+            "(SELECT COUNT(c) FROM Comment c WHERE c.item = i), " +
+            "(SELECT COALESCE(SUM(a.version), 0) FROM Comment c JOIN c.author a WHERE c.item = i), " +
+            "(SELECT COUNT(b) FROM Booking b WHERE b.item = i AND b.start < :currentTime), " +
+            "(SELECT COUNT(b) FROM Booking b WHERE b.item = i AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED AND b.start > :currentTime)) " +
+            "FROM Item i WHERE i.id = :itemId")
+    Optional<ItemVersion> findVersionById(int itemId, LocalDateTime currentTime);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemAvailabilityVersion(COUNT(b), COALESCE(SUM(b.id), 0)) " +
+            "FROM Item i LEFT JOIN Booking b ON b.item = i AND b.status IN :statuses AND b.end > :from AND b.start < :to " +
+            "WHERE i.id = :itemId GROUP BY i.id")
+    Optional<ItemAvailabilityVersion> findAvailabilityVersionById(int itemId, Collection<BookingStatus> statuses,
+                                                                  LocalDateTime from, LocalDateTime to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(int itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :itemIds ORDER BY i.id")
+    List<Item> findAllByIdInForUpdate(Collection<Integer> itemIds);
 }
\ No newline at end of file
@@ -0,0 +1,328 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory trigram index over item names and descriptions.
+ *
+ * <p>A query of at least three characters is answered by intersecting the postings of its trigrams, shortest first,
+ * and checking the remaining candidates against the indexed text. Results therefore match the case-insensitive
+ * substring search of the database path, multi-word queries included. Shorter queries and queries containing LIKE
+ * wildcards are left to the database. Changes are applied after the writing transaction commits, and removing an item
+ * drops its postings.
+ */
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM_SIZE = 3;
+    private static final int REBUILD_CHUNK_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Postings> postingsByGram = new HashMap<>();
+    private Map<Integer, IndexedText> texts = new HashMap<>();
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.index.enabled:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public boolean supports(String text) {
+        return text.length() >= GRAM_SIZE && text.chars().noneMatch(c -> c == '%' || c == '_' || c == '\\');
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        Integer maxId = itemRepository.findMaxId();
+        int chunkCount = maxId == null ? 0 : maxId / REBUILD_CHUNK_SIZE + 1;
+
+        List<Chunk> chunks = IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(chunk -> itemRepository.findAllIndexedItemsByIdBetween(
+                        chunk * REBUILD_CHUNK_SIZE, (chunk + 1) * REBUILD_CHUNK_SIZE - 1))
+                .map(ItemSearchIndex::buildChunk)
+                .collect(Collectors.toList());
+
+        Map<String, Postings> rebuiltPostings = new HashMap<>();
+        Map<Integer, IndexedText> rebuiltTexts = new HashMap<>();
+        chunks.forEach(chunk -> {
+            chunk.postingsByGram.forEach((gram, postings) ->
+                    rebuiltPostings.computeIfAbsent(gram, key -> new Postings()).appendAll(postings));
+            rebuiltTexts.putAll(chunk.texts);
+        });
+
+        lock.writeLock().lock();
+        try {
+            postingsByGram = rebuiltPostings;
+            texts = rebuiltTexts;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(int itemId, String name, String description, boolean isAvailable) {
+        update(itemId, name, description, isAvailable);
+    }
+
+    public void update(int itemId, String name, String description, boolean isAvailable) {
+        IndexedText text = new IndexedText(name, description, isAvailable);
+
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                IndexedText stored = texts.put(itemId, text);
+                Set<String> oldGrams = stored != null ? stored.grams() : Set.of();
+                Set<String> newGrams = text.grams();
+
+                oldGrams.stream()
+                        .filter(gram -> !newGrams.contains(gram))
+                        .forEach(gram -> removePosting(gram, itemId));
+                newGrams.stream()
+                        .filter(gram -> !oldGrams.contains(gram))
+                        .forEach(gram -> postingsByGram.computeIfAbsent(gram, key -> new Postings()).add(itemId));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(int itemId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                IndexedText stored = texts.remove(itemId);
+                if (stored != null) {
+                    stored.grams().forEach(gram -> removePosting(gram, itemId));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<Integer> search(String text, long offset, int size) {
+        if (!supports(text)) {
+            return new ArrayList<>();
+        }
+
+        String query = normalize(text);
+
+        lock.readLock().lock();
+        try {
+            List<Postings> postingsList = new ArrayList<>();
+            for (String gram : grams(query)) {
+                Postings postings = postingsByGram.get(gram);
+                if (postings == null) {
+                    return new ArrayList<>();
+                }
+                postingsList.add(postings);
+            }
+            postingsList.sort(Comparator.comparingInt(Postings::size));
+
+            int[] candidates = postingsList.get(0).toArray();
+            for (int i = 1; i < postingsList.size() && candidates.length > 0; i++) {
+                candidates = postingsList.get(i).retainAll(candidates);
+            }
+
+            return Arrays.stream(candidates)
+                    .filter(itemId -> texts.get(itemId).matches(query))
+                    .skip(offset)
+                    .limit(size)
+                    .boxed()
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Chunk buildChunk(List<IndexedItem> items) {
+        Chunk chunk = new Chunk();
+
+        items.stream()
+                .sorted(Comparator.comparing(IndexedItem::getId))
+                .forEach(item -> {
+                    IndexedText text = new IndexedText(item.getName(), item.getDescription(),
+                            Boolean.TRUE.equals(item.getAvailable()));
+                    chunk.texts.put(item.getId(), text);
+                    text.grams().forEach(gram ->
+                            chunk.postingsByGram.computeIfAbsent(gram, key -> new Postings()).append(item.getId()));
+                });
+
+        return chunk;
+    }
+
+    private void removePosting(String gram, int itemId) {
+        Postings postings = postingsByGram.get(gram);
+        if (postings != null && postings.remove(itemId) && postings.isEmpty()) {
+            postingsByGram.remove(gram);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String... texts) {
+        Set<String> grams = new HashSet<>();
+        for (String text : texts) {
+            for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+                grams.add(text.substring(i, i + GRAM_SIZE));
+            }
+        }
+        return grams;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class IndexedItem {
+        private Integer id;
+        private String name;
+        private String description;
+        private Boolean available;
+    }
+
+    private static class IndexedText {
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        IndexedText(String name, String description, boolean available) {
+            this.name = normalize(name);
+            this.description = normalize(description);
+            this.available = available;
+        }
+
+        Set<String> grams() {
+            return ItemSearchIndex.grams(name, description);
+        }
+
+        boolean matches(String query) {
+            return available && (name.contains(query) || description.contains(query));
+        }
+    }
+
+    private static class Chunk {
+        private final Map<String, Postings> postingsByGram = new HashMap<>();
+        private final Map<Integer, IndexedText> texts = new HashMap<>();
+    }
+
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void append(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void appendAll(Postings other) {
+            if (size + other.size > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, size + other.size));
+            }
+            System.arraycopy(other.ids, 0, ids, size, other.size);
+            size += other.size;
+        }
+
+        void add(int id) {
+            if (size == 0 || ids[size - 1] < id) {
+                append(id);
+                return;
+            }
+
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        int[] retainAll(int[] candidates) {
+            return Arrays.stream(candidates)
+                    .filter(id -> Arrays.binarySearch(ids, 0, size, id) >= 0)
+                    .toArray();
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto create(ItemDto itemDto, int userId);
 
+    List<ItemImportResultDto> createAll(List<ItemDto> itemDtos, int userId);
+
     CommentDto createComment(CommentDto commentDto, int userId, int itemId);
 
     ItemDto getById(int userId, int itemId);
 
+    String getEntityTag(int userId, int itemId);
+
+    String getAvailabilityEntityTag(int itemId, LocalDateTime from, LocalDateTime to);
+
+    void getAvailability(int itemId, LocalDateTime from, LocalDateTime to, Consumer<ItemAvailabilityDto> consumer);
+
     List<ItemDto> getAllByOwnerId(int userId, int from, int size);
 
     List<ItemDto> getAllBySearchText(String searchText, int from, int size);
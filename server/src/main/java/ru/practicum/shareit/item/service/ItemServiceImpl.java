@@ -1,49 +1,70 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityVersion;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemVersion;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.util.ServiceUtil;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+
+    @Value("${shareit.search.trigram:false}")
+    private boolean trigramSearch;
 
     @Override
     @Transactional
     public ItemDto create(ItemDto itemDto, int userId) {
-        User user = ServiceUtil.getUserOrThrowNotFound(userId, userRepository);
+        User user = ServiceUtil.getUserReferenceOrThrowNotFound(userId, userCache, userRepository);
 
         Item item = ItemMapper.fromDto(itemDto);
         item.setOwner(user);
@@ -53,7 +74,67 @@ public class ItemServiceImpl implements ItemService {
             item.setItemRequest(itemRequest);
         }
 
-        return ItemMapper.toDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        itemSearchIndex.add(saved.getId(), saved.getName(), saved.getDescription(), saved.getAvailable());
+
+        return ItemMapper.toDto(saved);
+    }
+
+    @Override
+    @Transactional
+    public List<ItemImportResultDto> createAll(List<ItemDto> itemDtos, int userId) {
+        User user = ServiceUtil.getUserReferenceOrThrowNotFound(userId, userCache, userRepository);
+
+        Set<Integer> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, ItemRequest> itemRequests = requestIds.isEmpty() ? Map.of() : itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<ItemImportResultDto> results = new ArrayList<>(itemDtos.size());
+        List<Item> items = new ArrayList<>();
+        List<ItemImportResultDto> createdResults = new ArrayList<>();
+
+        for (ItemDto itemDto : itemDtos) {
+            try {
+                checkItem(itemDto);
+
+                Item item = ItemMapper.fromDto(itemDto);
+                item.setOwner(user);
+
+                if (itemDto.getRequestId() != null) {
+                    ItemRequest itemRequest = itemRequests.get(itemDto.getRequestId());
+                    if (itemRequest == null) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Запрос не найден");
+                    }
+                    item.setItemRequest(itemRequest);
+                }
+
+                items.add(item);
+
+                ItemImportResultDto result = ItemImportResultDto.builder()
+                        .status(HttpStatus.OK.value())
+                        .build();
+                createdResults.add(result);
+                results.add(result);
+            } catch (ResponseStatusException e) {
+                results.add(ItemImportResultDto.builder()
+                        .status(e.getStatus().value())
+                        .error(e.getReason())
+                        .build());
+            }
+        }
+
+        itemRepository.saveAllAndFlush(items);
+
+        for (int i = 0; i < items.size(); i++) {
+            Item saved = items.get(i);
+            itemSearchIndex.add(saved.getId(), saved.getName(), saved.getDescription(), saved.getAvailable());
+            createdResults.get(i).setItem(ItemMapper.toDto(saved));
+        }
+
+        return results;
     }
 
     @Override
@@ -86,13 +167,77 @@ public class ItemServiceImpl implements ItemService {
         return itemDto;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getEntityTag(int userId, int itemId) {
+        ItemVersion version = itemRepository.findVersionById(itemId, LocalDateTime.now())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Вещь не найдена"));
+
+        String entityTag = version.getVersion() + "-" + version.getCommentCount() + "-" + version.getCommentAuthorVersions();
+        return version.getOwnerId() == userId
+                ? entityTag + "-" + version.getPastBookingCount() + "-" + version.getNextBookingCount()
+                : entityTag;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getAvailabilityEntityTag(int itemId, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Время окончания должно быть после старта");
+        }
+
+        ItemAvailabilityVersion version = itemRepository.findAvailabilityVersionById(itemId, BookingStatus.ACTIVE, from, to)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Вещь не найдена"));
+
+        return version.getBookingCount() + "-" + version.getBookingIdSum();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void getAvailability(int itemId, LocalDateTime from, LocalDateTime to, Consumer<ItemAvailabilityDto> consumer) {
+        LocalDateTime freeFrom = from;
+
+        try (Stream<BookingInterval> intervals = bookingRepository.streamIntervalsByItemIdAndStatusIn(itemId, BookingStatus.ACTIVE, from, to)) {
+            for (BookingInterval interval : (Iterable<BookingInterval>) intervals::iterator) {
+                if (interval.getStart().isAfter(freeFrom)) {
+                    consumer.accept(new ItemAvailabilityDto(freeFrom, interval.getStart()));
+                }
+                if (interval.getEnd().isAfter(freeFrom)) {
+                    freeFrom = interval.getEnd();
+                }
+            }
+        }
+
+        if (to.isAfter(freeFrom)) {
+            consumer.accept(new ItemAvailabilityDto(freeFrom, to));
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getAllByOwnerId(int userId, int from, int size) {
-        return itemRepository.findAllByOwnerId(userId, PageRequest.of(from / size, size)).stream()
+        List<Item> items = itemRepository.findAllByOwnerId(userId, PageRequest.of(from / size, size));
+
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Integer> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        LocalDateTime currentTime = LocalDateTime.now();
+        Map<Integer, Booking> nextBookingsByItemId = bookingRepository.findAllNextByItemIdIn(itemIds, currentTime).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(), this::earliestCreated));
+        Map<Integer, Booking> lastBookingsByItemId = bookingRepository.findAllLastByItemIdIn(itemIds, currentTime).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(), this::earliestCreated));
+        Map<Integer, List<Comment>> commentsByItemId = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        return items.stream()
                 .map(ItemMapper::toDto)
-                .map(this::addBookingInfo)
-                .map(this::addComments)
+                .map(itemDto -> addBookingInfo(itemDto, nextBookingsByItemId.get(itemDto.getId()), lastBookingsByItemId.get(itemDto.getId())))
+                .map(itemDto -> addComments(itemDto, commentsByItemId.getOrDefault(itemDto.getId(), Collections.emptyList())))
                 .sorted(Comparator.comparing(ItemDto::getId))
                 .collect(Collectors.toList());
     }
@@ -104,7 +249,21 @@ public class ItemServiceImpl implements ItemService {
             return Collections.EMPTY_LIST;
         }
 
-        return itemRepository.findBySearchText(searchText, PageRequest.of(from, size)).stream()
+        Pageable pageable = PageRequest.of(from, size);
+
+        if (itemSearchIndex.isReady() && itemSearchIndex.supports(searchText)) {
+            return itemRepository.findAllById(itemSearchIndex.search(searchText, pageable.getOffset(), size)).stream()
+                    .filter(Item::getAvailable)
+                    .sorted(Comparator.comparing(Item::getId))
+                    .map(ItemMapper::toDto)
+                    .collect(Collectors.toList());
+        }
+
+        List<Item> items = trigramSearch
+                ? itemRepository.findBySearchTextTrigram(searchText, pageable)
+                : itemRepository.findBySearchText(searchText, pageable);
+
+        return items.stream()
                 .map(ItemMapper::toDto)
                 .collect(Collectors.toList());
     }
@@ -123,7 +282,9 @@ public class ItemServiceImpl implements ItemService {
         Optional.ofNullable(itemDto.getAvailable()).ifPresent(stored::setAvailable);
 
         try {
-            return ItemMapper.toDto(itemRepository.save(stored));
+            Item saved = itemRepository.save(stored);
+            itemSearchIndex.update(saved.getId(), saved.getName(), saved.getDescription(), saved.getAvailable());
+            return ItemMapper.toDto(saved);
         } catch (DataIntegrityViolationException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
         }
@@ -133,21 +294,24 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public void delete(int itemId) {
         itemRepository.deleteById(itemId);
+        itemSearchIndex.remove(itemId);
     }
 
     private ItemDto addBookingInfo(ItemDto itemDto) {
-        List<Booking> bookings = bookingRepository.findAllByItemId(itemDto.getId());
-
-        Booking nextBooking = bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                .filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED))
-                .min(Comparator.comparing(Booking::getStart))
-                .orElse(null);
-        Booking lastBooking = bookings.stream()
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()))
-                .max(Comparator.comparing(Booking::getEnd))
-                .orElse(null);
+        LocalDateTime currentTime = LocalDateTime.now();
+        Pageable firstResult = PageRequest.of(0, 1);
+
+        itemDto.setNextBooking(bookingRepository.findNextByItemId(itemDto.getId(), currentTime, firstResult).stream()
+                .findFirst()
+                .orElse(null));
+        itemDto.setLastBooking(bookingRepository.findLastByItemId(itemDto.getId(), currentTime, firstResult).stream()
+                .findFirst()
+                .orElse(null));
+
+        return itemDto;
+    }
 
+    private ItemDto addBookingInfo(ItemDto itemDto, Booking nextBooking, Booking lastBooking) {
         itemDto.setNextBooking(nextBooking != null ? ItemDto.ItemBooking.builder()
                 .id(nextBooking.getId())
                 .bookerId(nextBooking.getUser().getId())
@@ -160,11 +324,33 @@ public class ItemServiceImpl implements ItemService {
         return itemDto;
     }
 
+    private Booking earliestCreated(Booking first, Booking second) {
+        return first.getId() < second.getId() ? first : second;
+    }
+
     private ItemDto addComments(ItemDto itemDto) {
-        itemDto.setComments(commentRepository.findAllByItemId(itemDto.getId()).stream()
+        return addComments(itemDto, commentRepository.findAllByItemId(itemDto.getId()));
+    }
+
+    private ItemDto addComments(ItemDto itemDto, List<Comment> comments) {
+        itemDto.setComments(comments.stream()
                 .map(CommentMapper::toDto)
                 .collect(Collectors.toList()));
 
         return itemDto;
     }
+
+    private static void checkItem(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Имя не должно быть пустым");
+        }
+
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Описание не должно быть пустым");
+        }
+
+        if (itemDto.getAvailable() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Доступность должна быть явно указана");
+        }
+    }
 }
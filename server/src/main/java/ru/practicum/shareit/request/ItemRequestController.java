@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateResponseDto;
 import ru.practicum.shareit.request.dto.ItemRequestGetResponseDto;
@@ -31,7 +32,11 @@ public class ItemRequestController {
 
     @GetMapping("/{itemRequestId}")
     public ItemRequestGetResponseDto getById(@RequestHeader("X-Sharer-User-Id") int userId,
-                                             @PathVariable int itemRequestId) {
+                                             @PathVariable int itemRequestId,
+                                             WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getEntityTag(userId, itemRequestId))) {
+            return null;
+        }
         return itemRequestService.getById(userId, itemRequestId);
     }
 
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemRequestVersion {
+    private Long itemCount;
+    private Integer maxItemId;
+    private Long itemVersions;
+}
\ No newline at end of file
@@ -2,12 +2,19 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestVersion;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
     List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(int userId, Pageable pageable);
 
     List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(int requestorId, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemRequestVersion(COUNT(i), COALESCE(MAX(i.id), 0), COALESCE(SUM(i.version), 0)) " +
+            "FROM ItemRequest r LEFT JOIN Item i ON i.itemRequest = r WHERE r.id = :itemRequestId GROUP BY r.id")
+    Optional<ItemRequestVersion> findVersionById(int itemRequestId);
 }
\ No newline at end of file
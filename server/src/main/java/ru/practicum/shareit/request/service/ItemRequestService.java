@@ -13,5 +13,7 @@ public interface ItemRequestService {
 
     ItemRequestGetResponseDto getById(int userId, int itemRequestId);
 
+    String getEntityTag(int userId, int itemRequestId);
+
     ItemRequestCreateResponseDto create(ItemRequestCreateDto itemRequestCreateDto, int userId);
 }
\ No newline at end of file
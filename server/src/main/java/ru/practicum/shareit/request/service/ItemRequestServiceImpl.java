@@ -2,23 +2,27 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.item.model.Item;
+import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateResponseDto;
 import ru.practicum.shareit.request.dto.ItemRequestGetResponseDto;
+import ru.practicum.shareit.request.dto.ItemRequestVersion;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.util.ServiceUtil;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,44 +30,53 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestGetResponseDto> getAllByRequestorId(int userId, int from, int size) {
-        ServiceUtil.getUserOrThrowNotFound(userId, userRepository);
+        ServiceUtil.checkUserExistsOrThrowNotFound(userId, userCache);
 
-        return itemRequestRepository
+        return addItemsInfo(itemRequestRepository
                 .findAllByRequestorIdOrderByCreatedDesc(userId, PageRequest.of(from / size, size)).stream()
                 .map(ItemRequestMapper::toGetResponseDto)
-                .map(this::addItemsInfo)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestGetResponseDto> getAll(int userId, int from, int size) {
-        return itemRequestRepository
+        return addItemsInfo(itemRequestRepository
                 .findAllByRequestorIdNotOrderByCreatedDesc(userId, PageRequest.of(from / size, size)).stream()
                 .map(ItemRequestMapper::toGetResponseDto)
-                .map(this::addItemsInfo)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemRequestGetResponseDto getById(int userId, int itemRequestId) {
-        ServiceUtil.getUserOrThrowNotFound(userId, userRepository);
+        ServiceUtil.checkUserExistsOrThrowNotFound(userId, userCache);
         ItemRequest itemRequest = ServiceUtil.getItemRequestOrThrowNotFound(itemRequestId, itemRequestRepository);
         ItemRequestGetResponseDto responseDto = ItemRequestMapper.toGetResponseDto(itemRequest);
-        responseDto = addItemsInfo(responseDto);
+        addItemsInfo(List.of(responseDto));
         return responseDto;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getEntityTag(int userId, int itemRequestId) {
+        ServiceUtil.checkUserExistsOrThrowNotFound(userId, userCache);
+        ItemRequestVersion version = itemRequestRepository.findVersionById(itemRequestId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Запрос не найден"));
+
+        return version.getItemCount() + "-" + version.getMaxItemId() + "-" + version.getItemVersions();
+    }
+
     @Override
     @Transactional
     public ItemRequestCreateResponseDto create(ItemRequestCreateDto itemRequestCreateDto, int userId) {
-        User user = ServiceUtil.getUserOrThrowNotFound(userId, userRepository);
+        User user = ServiceUtil.getUserReferenceOrThrowNotFound(userId, userCache, userRepository);
 
         ItemRequest itemRequest = ItemRequestMapper.fromDto(itemRequestCreateDto);
         itemRequest.setRequestor(user);
@@ -72,22 +85,22 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestMapper.toCreateResponseDto(itemRequestRepository.save(itemRequest));
     }
 
-    private ItemRequestGetResponseDto addItemsInfo(ItemRequestGetResponseDto itemRequestGetResponseDto) {
-        List<Item> items = itemRepository.findAllByItemRequestId(itemRequestGetResponseDto.getId());
-
-        itemRequestGetResponseDto.setItems(items.isEmpty() ? new ArrayList<>() :
-                items.stream()
-                        .map(item -> ItemRequestGetResponseDto.RequestedItem.builder()
-                                .id(item.getId())
-                                .name(item.getName())
-                                .description(item.getDescription())
-                                .available(item.getAvailable())
-                                .requestId(item.getItemRequest().getId())
-                                .build()
-                        )
-                        .collect(Collectors.toList())
-        );
-
-        return itemRequestGetResponseDto;
+    private List<ItemRequestGetResponseDto> addItemsInfo(List<ItemRequestGetResponseDto> itemRequestGetResponseDtos) {
+        if (itemRequestGetResponseDtos.isEmpty()) {
+            return itemRequestGetResponseDtos;
+        }
+
+        List<Integer> requestIds = itemRequestGetResponseDtos.stream()
+                .map(ItemRequestGetResponseDto::getId)
+                .collect(Collectors.toList());
+
+        Map<Integer, List<ItemRequestGetResponseDto.RequestedItem>> itemsByRequestId = itemRepository
+                .findAllRequestedItemsByItemRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemRequestGetResponseDto.RequestedItem::getRequestId));
+
+        itemRequestGetResponseDtos.forEach(itemRequestGetResponseDto -> itemRequestGetResponseDto.setItems(
+                itemsByRequestId.getOrDefault(itemRequestGetResponseDto.getId(), new ArrayList<>())));
+
+        return itemRequestGetResponseDtos;
     }
 }
\ No newline at end of file
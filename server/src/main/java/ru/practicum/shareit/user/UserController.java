@@ -1,17 +1,28 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 public class UserController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public UserDto create(@RequestBody UserDto userDto) {
@@ -19,13 +30,52 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getById(@PathVariable int userId) {
+    public UserDto getById(@PathVariable int userId,
+                           WebRequest request) {
+        if (request.checkNotModified(userService.getEntityTag(userId))) {
+            return null;
+        }
         return userService.getById(userId);
     }
 
     @GetMapping
-    public List<UserDto> getAll() {
-        return userService.getAll();
+    public List<UserDto> getAll(@RequestParam(required = false, defaultValue = "0") int from,
+                                @RequestParam(required = false, defaultValue = "20") int size) {
+        return userService.getAll(from, size);
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<UserDto>> getAllWithCursor(@RequestParam int cursor,
+                                                          @RequestParam(required = false, defaultValue = "20") int size) {
+        List<UserDto> users = userService.getAllAfter(cursor, size);
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+
+        if (users.size() == size) {
+            responseBuilder.header(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()));
+        }
+
+        return responseBuilder.body(users);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                userService.export(user -> {
+                    try {
+                        generator.writeObject(user);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PatchMapping("/{userId}")
@@ -1,7 +1,23 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface UserRepository extends JpaRepository<User, Integer> {
+    @Query("SELECT u.version FROM User u WHERE u.id = :userId")
+    Optional<Integer> findVersionById(int userId);
+
+    List<User> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<User> findAllByIdGreaterThanOrderByIdAsc(int id, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) FROM User u " +
+            "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserDto> findExportChunk(int afterId, Pageable pageable);
 }
\ No newline at end of file
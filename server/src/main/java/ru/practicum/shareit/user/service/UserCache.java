@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final Cache<Integer, UserDto> cache;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${shareit.user-cache.max-size:10000}") long maxSize,
+                     @Value("${shareit.user-cache.ttl:10m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Optional<UserDto> get(int userId) {
+        return Optional.ofNullable(cache.get(userId, id -> userRepository.findById(id)
+                .map(UserMapper::toDto)
+                .orElse(null)));
+    }
+
+    public boolean exists(int userId) {
+        return get(userId).isPresent();
+    }
+
+    public void evict(int userId) {
+        cache.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
\ No newline at end of file
@@ -3,13 +3,20 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto create(UserDto userDto);
 
     UserDto getById(int userId);
 
-    List<UserDto> getAll();
+    String getEntityTag(int userId);
+
+    List<UserDto> getAll(int from, int size);
+
+    List<UserDto> getAllAfter(int cursor, int size);
+
+    void export(Consumer<UserDto> consumer);
 
     UserDto update(UserDto userDto, int userId);
 
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,12 +16,16 @@ import ru.practicum.shareit.util.ServiceUtil;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     @Transactional
@@ -36,15 +41,43 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public UserDto getById(int userId) {
-        return UserMapper.toDto(ServiceUtil.getUserOrThrowNotFound(userId, userRepository));
+        return ServiceUtil.getUserDtoOrThrowNotFound(userId, userCache);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserDto> getAll() {
-        return userRepository.findAll().stream()
-                .map(UserMapper::toDto)
-                .collect(Collectors.toCollection(ArrayList::new));
+    public String getEntityTag(int userId) {
+        return userRepository.findVersionById(userId)
+                .map(String::valueOf)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> getAll(int from, int size) {
+        ServiceUtil.checkPageSize(size);
+        return toDtos(userRepository.findAllByOrderByIdAsc(PageRequest.of(from / size, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> getAllAfter(int cursor, int size) {
+        ServiceUtil.checkPageSize(size);
+        return toDtos(userRepository.findAllByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, size)));
+    }
+
+    @Override
+    public void export(Consumer<UserDto> consumer) {
+        int afterId = 0;
+        List<UserDto> chunk;
+
+        do {
+            chunk = userRepository.findExportChunk(afterId, PageRequest.of(0, EXPORT_CHUNK_SIZE));
+            chunk.forEach(consumer);
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
     }
 
     @Override
@@ -56,7 +89,9 @@ public class UserServiceImpl implements UserService {
         Optional.ofNullable(userDto.getEmail()).ifPresent(stored::setEmail);
 
         try {
-            return UserMapper.toDto(userRepository.save(stored));
+            User saved = userRepository.save(stored);
+            userCache.evict(userId);
+            return UserMapper.toDto(saved);
         } catch (DataIntegrityViolationException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
         }
@@ -66,5 +101,12 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void delete(int userId) {
         userRepository.deleteById(userId);
+        userCache.evict(userId);
+    }
+
+    private static List<UserDto> toDtos(List<User> users) {
+        return users.stream()
+                .map(UserMapper::toDto)
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 }
\ No newline at end of file
@@ -8,8 +8,10 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 public class ServiceUtil {
     public static User getUserOrThrowNotFound(int id, UserRepository userRepository) {
@@ -17,6 +19,28 @@ public class ServiceUtil {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден"));
     }
 
+    public static UserDto getUserDtoOrThrowNotFound(int id, UserCache userCache) {
+        return userCache.get(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден"));
+    }
+
+    public static void checkUserExistsOrThrowNotFound(int id, UserCache userCache) {
+        if (!userCache.exists(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден");
+        }
+    }
+
+    public static void checkPageSize(int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Размер страницы должен быть положительным");
+        }
+    }
+
+    public static User getUserReferenceOrThrowNotFound(int id, UserCache userCache, UserRepository userRepository) {
+        checkUserExistsOrThrowNotFound(id, userCache);
+        return userRepository.getReferenceById(id);
+    }
+
     public static Item getItemOrThrowNotFound(int id, ItemRepository itemRepository) {
         return itemRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Вещь не найдена"));
@@ -0,0 +1,16 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE INDEX IF NOT EXISTS items_item_name_trgm_idx ON items USING GIN (item_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING GIN (description gin_trgm_ops);
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''bookings_item_id_period_excl'') THEN
+        ALTER TABLE bookings
+            ADD CONSTRAINT bookings_item_id_period_excl EXCLUDE USING GIST (
+                item_id WITH =,
+                tsrange(start_date, end_date) WITH &&
+            ) WHERE (status IN (''WAITING'', ''APPROVED''));
+    END IF;
+END';
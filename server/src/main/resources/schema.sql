@@ -3,17 +3,29 @@ DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
-    user_id   INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id   INT DEFAULT nextval('users_seq') PRIMARY KEY,
     user_name VARCHAR(255) NOT NULL,
-    email     VARCHAR(512) NOT NULL UNIQUE
+    email     VARCHAR(512) NOT NULL UNIQUE,
+    version   INT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS requests
 (
-    request_id          INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    request_id          INT DEFAULT nextval('requests_seq') PRIMARY KEY,
     request_description VARCHAR(1024)                  NOT NULL,
     requestor_id        INT REFERENCES users (user_id) NOT NULL,
     create_date         TIMESTAMP WITHOUT TIME ZONE    NOT NULL
@@ -21,17 +33,18 @@ CREATE TABLE IF NOT EXISTS requests
 
 CREATE TABLE IF NOT EXISTS items
 (
-    item_id     INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    item_id     INT DEFAULT nextval('items_seq') PRIMARY KEY,
     item_name   VARCHAR(255)                   NOT NULL,
     description VARCHAR(1024)                  NOT NULL,
     available   BOOLEAN                        NOT NULL,
     owner_id    INT REFERENCES users (user_id) NOT NULL,
-    request_id  INT REFERENCES requests (request_id)
+    request_id  INT REFERENCES requests (request_id),
+    version     INT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    booking_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id INT DEFAULT nextval('bookings_seq') PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE    NOT NULL,
     end_date   TIMESTAMP WITHOUT TIME ZONE    NOT NULL,
     item_id    INT REFERENCES items (item_id) NOT NULL,
@@ -41,9 +54,24 @@ CREATE TABLE IF NOT EXISTS bookings
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    comment_id   INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    comment_id   INT DEFAULT nextval('comments_seq') PRIMARY KEY,
     comment_text VARCHAR(1024)                  NOT NULL,
     item_id      INT REFERENCES items (item_id) NOT NULL,
     author_id    INT REFERENCES users (user_id) NOT NULL,
     created_date TIMESTAMP WITHOUT TIME ZONE    NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_id_create_date_idx ON requests (requestor_id, create_date DESC);
+CREATE INDEX IF NOT EXISTS requests_create_date_idx ON requests (create_date DESC);
+
+CREATE INDEX IF NOT EXISTS items_owner_id_item_id_idx ON items (owner_id, item_id);
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS bookings_item_id_start_date_idx ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS bookings_item_id_end_date_idx ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS bookings_booker_id_start_date_idx ON bookings (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS bookings_booker_id_status_start_date_idx ON bookings (booker_id, status, start_date DESC);
+CREATE INDEX IF NOT EXISTS bookings_booker_id_booking_id_idx ON bookings (booker_id, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_item_id_booking_id_idx ON bookings (item_id, booking_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_id_idx ON comments (item_id);
@@ -0,0 +1,198 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.TestUtil.persistUser;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DirtiesContext
+public class EntityTagIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private ItemRequest itemRequest;
+
+    @BeforeEach
+    void setUp() {
+        owner = persistUser(entityManager, "owner");
+        booker = persistUser(entityManager, "booker");
+
+        itemRequest = ItemRequest.builder()
+                .description("Request")
+                .requestor(booker)
+                .created(LocalDateTime.now())
+                .build();
+        entityManager.persist(itemRequest);
+
+        item = Item.builder()
+                .name("Item")
+                .description("ItemDescr")
+                .available(true)
+                .owner(owner)
+                .itemRequest(itemRequest)
+                .build();
+        entityManager.persist(item);
+    }
+
+    @Test
+    void userEntityTagTest() throws Exception {
+        String entityTag = getEntityTag("/users/" + owner.getId(), owner);
+
+        mockMvc.perform(get("/users/" + owner.getId())
+                        .header("If-None-Match", entityTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(patch("/users/" + owner.getId())
+                        .content("{\"name\":\"renamed\"}")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        entityManager.flush();
+
+        mockMvc.perform(get("/users/" + owner.getId())
+                        .header("If-None-Match", entityTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(entityTag)));
+    }
+
+    @Test
+    void itemEntityTagTest() throws Exception {
+        String path = "/items/" + item.getId();
+        String ownerTag = getEntityTag(path, owner);
+        String bookerTag = getEntityTag(path, booker);
+
+        assertThat(ownerTag, not(equalTo(bookerTag)));
+
+        entityManager.persist(Booking.builder()
+                .status(BookingStatus.APPROVED)
+                .user(booker)
+                .item(item)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build());
+        entityManager.flush();
+
+        assertThat(getEntityTag(path, owner), not(equalTo(ownerTag)));
+        assertThat(getEntityTag(path, booker), equalTo(bookerTag));
+
+        entityManager.persist(Comment.builder()
+                .text("Comment")
+                .item(item)
+                .author(booker)
+                .created(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+
+        String commentedTag = getEntityTag(path, booker);
+        assertThat(commentedTag, not(equalTo(bookerTag)));
+
+        booker.setName("renamed");
+        entityManager.flush();
+
+        assertThat(getEntityTag(path, booker), not(equalTo(commentedTag)));
+    }
+
+    @Test
+    void itemRequestEntityTagTest() throws Exception {
+        String path = "/requests/" + itemRequest.getId();
+        String entityTag = getEntityTag(path, booker);
+
+        item.setAvailable(false);
+        entityManager.flush();
+
+        String updatedTag = getEntityTag(path, booker);
+        assertThat(updatedTag, not(equalTo(entityTag)));
+
+        entityManager.persist(Item.builder()
+                .name("Item2")
+                .description("ItemDescr2")
+                .available(true)
+                .owner(owner)
+                .itemRequest(itemRequest)
+                .build());
+        entityManager.flush();
+
+        assertThat(getEntityTag(path, booker), not(equalTo(updatedTag)));
+    }
+
+    @Test
+    void itemAvailabilityEntityTagTest() throws Exception {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        String path = "/items/" + item.getId() + "/availability?from=" + from + "&to=" + from.plusDays(10);
+        String entityTag = getEntityTag(path, booker);
+
+        entityManager.persist(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .user(booker)
+                .item(item)
+                .start(from.plusDays(20))
+                .end(from.plusDays(21))
+                .build());
+        entityManager.flush();
+
+        assertThat(getEntityTag(path, booker), equalTo(entityTag));
+
+        Booking booking = Booking.builder()
+                .status(BookingStatus.WAITING)
+                .user(booker)
+                .item(item)
+                .start(from.plusDays(2))
+                .end(from.plusDays(3))
+                .build();
+        entityManager.persist(booking);
+        entityManager.flush();
+
+        String bookedTag = getEntityTag(path, booker);
+        assertThat(bookedTag, not(equalTo(entityTag)));
+
+        booking.setStatus(BookingStatus.REJECTED);
+        entityManager.flush();
+
+        assertThat(getEntityTag(path, booker), equalTo(entityTag));
+    }
+
+    private String getEntityTag(String path, User user) throws Exception {
+        return mockMvc.perform(get(path)
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+    }
+}
\ No newline at end of file
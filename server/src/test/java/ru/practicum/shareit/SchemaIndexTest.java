@@ -0,0 +1,138 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Runs EXPLAIN for the hot repository queries against PostgreSQL with the production schema.
+ *
+ * <p>The tables are filled with production-like volumes and analyzed first, so the planner picks the plan it would
+ * pick in production, and a {@code Seq Scan} in any of them fails the test. Needs Docker; run with
+ * {@code mvn test -Ppostgres}.
+ */
+@Tag("postgres")
+@Testcontainers
+public class SchemaIndexTest {
+    private static final String NOW = "TIMESTAMP '2026-01-01 12:00:00'";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13.7-alpine");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void createSchema() throws SQLException {
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-postgresql.sql"));
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-index-data.sql"));
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        connection.close();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryAvoidsSeqScanTest(String name, String sql) throws SQLException {
+        String plan = explain(sql);
+
+        assertThat(plan, not(containsString("Seq Scan")));
+    }
+
+    private static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("findNextByItemId",
+                        "SELECT booking_id, booker_id FROM bookings " +
+                                "WHERE item_id = 1 AND status = 'APPROVED' AND start_date > " + NOW + " " +
+                                "ORDER BY start_date, booking_id LIMIT 1"),
+                Arguments.of("findLastByItemId",
+                        "SELECT booking_id, booker_id FROM bookings " +
+                                "WHERE item_id = 1 AND start_date < " + NOW + " " +
+                                "ORDER BY end_date DESC, booking_id LIMIT 1"),
+                Arguments.of("findAllNextByItemIdIn",
+                        "SELECT b.* FROM bookings b " +
+                                "WHERE b.item_id IN (1, 2, 3) AND b.status = 'APPROVED' AND b.start_date > " + NOW + " " +
+                                "AND b.start_date = (SELECT MIN(nb.start_date) FROM bookings nb " +
+                                "WHERE nb.item_id = b.item_id AND nb.status = 'APPROVED' AND nb.start_date > " + NOW + ")"),
+                Arguments.of("findAllLastByItemIdIn",
+                        "SELECT b.* FROM bookings b " +
+                                "WHERE b.item_id IN (1, 2, 3) AND b.start_date < " + NOW + " " +
+                                "AND b.end_date = (SELECT MAX(lb.end_date) FROM bookings lb " +
+                                "WHERE lb.item_id = b.item_id AND lb.start_date < " + NOW + ")"),
+                Arguments.of("findAllByState ALL",
+                        "SELECT b.booking_id, b.start_date, b.end_date, b.status, b.booker_id, i.item_id, i.item_name " +
+                                "FROM bookings b JOIN items i ON i.item_id = b.item_id " +
+                                "WHERE b.booker_id = 1 " +
+                                "ORDER BY b.start_date DESC, b.booking_id DESC LIMIT 20"),
+                Arguments.of("findAllByState WAITING",
+                        "SELECT b.booking_id, b.start_date, b.end_date, b.status, b.booker_id, i.item_id, i.item_name " +
+                                "FROM bookings b JOIN items i ON i.item_id = b.item_id " +
+                                "WHERE b.booker_id = 1 AND b.status = 'WAITING' " +
+                                "ORDER BY b.start_date DESC, b.booking_id DESC LIMIT 20"),
+                Arguments.of("findAllByState owner",
+                        "SELECT b.booking_id, b.start_date, b.end_date, b.status, b.booker_id, i.item_id, i.item_name " +
+                                "FROM bookings b JOIN items i ON i.item_id = b.item_id " +
+                                "WHERE i.owner_id = 1 " +
+                                "ORDER BY b.start_date DESC, b.booking_id DESC LIMIT 20"),
+                Arguments.of("findExportChunkByBookerId",
+                        "SELECT b.booking_id, b.start_date, b.end_date, b.status, b.booker_id, i.item_id, i.item_name " +
+                                "FROM bookings b JOIN items i ON i.item_id = b.item_id " +
+                                "WHERE b.booker_id = 1 AND b.booking_id > 500 " +
+                                "ORDER BY b.booking_id LIMIT 500"),
+                Arguments.of("findExportChunkByOwnerId",
+                        "SELECT b.booking_id, b.start_date, b.end_date, b.status, b.booker_id, i.item_id, i.item_name " +
+                                "FROM bookings b JOIN items i ON i.item_id = b.item_id " +
+                                "WHERE i.owner_id = 1 AND (i.item_id > 10 OR (i.item_id = 10 AND b.booking_id > 500)) " +
+                                "ORDER BY i.item_id, b.booking_id LIMIT 500"),
+                Arguments.of("findAllByOwnerId",
+                        "SELECT * FROM items WHERE owner_id = 1 LIMIT 20"),
+                Arguments.of("findBySearchTextTrigram",
+                        "SELECT i.* FROM items i WHERE i.available " +
+                                "AND (i.item_name ILIKE '%drill%' OR i.description ILIKE '%drill%') " +
+                                "ORDER BY i.item_id LIMIT 20"),
+                Arguments.of("findAllRequestedItemsByItemRequestIdIn",
+                        "SELECT item_id, item_name, description, available, request_id FROM items " +
+                                "WHERE request_id IN (1, 2, 3)"),
+                Arguments.of("findAllByItemIdIn",
+                        "SELECT * FROM comments WHERE item_id IN (1, 2, 3)"),
+                Arguments.of("findAllByRequestorIdOrderByCreatedDesc",
+                        "SELECT * FROM requests WHERE requestor_id = 1 ORDER BY create_date DESC LIMIT 20"),
+                Arguments.of("findAllByRequestorIdNotOrderByCreatedDesc",
+                        "SELECT * FROM requests WHERE requestor_id <> 1 ORDER BY create_date DESC LIMIT 20")
+        );
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+
+public class SchemaScriptTest {
+    @Test
+    void platformScriptRunsAfterSchemaTest() throws IOException {
+        List<PropertySource<?>> documents = new PropertiesPropertySourceLoader()
+                .load("application", new ClassPathResource("application.properties"));
+
+        Object schemaLocations = documents.get(0).getProperty("spring.sql.init.schema-locations");
+
+        assertThat(List.of(String.valueOf(schemaLocations).split(",")),
+                contains("classpath:schema.sql", "optional:classpath:schema-${spring.sql.init.platform}.sql"));
+        for (PropertySource<?> document : documents.subList(1, documents.size())) {
+            assertThat(document.containsProperty("spring.sql.init.schema-locations"), equalTo(false));
+        }
+    }
+
+    @Test
+    void postgresqlScriptKeepsConstraintBlockWholeTest() throws IOException {
+        String script = StreamUtils.copyToString(new ClassPathResource("schema-postgresql.sql").getInputStream(), StandardCharsets.UTF_8);
+
+        List<String> statements = new ArrayList<>();
+        ScriptUtils.splitSqlScript(script, ScriptUtils.DEFAULT_STATEMENT_SEPARATOR, statements);
+
+        String constraintBlock = statements.get(statements.size() - 1);
+        assertThat(constraintBlock, startsWith("DO '"));
+        assertThat(constraintBlock, containsString("END IF;"));
+        assertThat(constraintBlock, endsWith("END'"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,193 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.TestUtil.persistUser;
+
+@SpringBootTest(properties = "shareit.jpa.cache.enabled=true")
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext
+public class SecondLevelCacheIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private ItemRequest itemRequest;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = persistUser(entityManager, "owner");
+            booker = persistUser(entityManager, "booker");
+
+            itemRequest = ItemRequest.builder()
+                    .description("Request")
+                    .requestor(booker)
+                    .created(LocalDateTime.now())
+                    .build();
+            entityManager.persist(itemRequest);
+
+            item = Item.builder()
+                    .name("Item")
+                    .description("ItemDescr")
+                    .available(true)
+                    .owner(owner)
+                    .itemRequest(itemRequest)
+                    .build();
+            entityManager.persist(item);
+
+            entityManager.persist(Booking.builder()
+                    .status(BookingStatus.APPROVED)
+                    .user(booker)
+                    .item(item)
+                    .start(LocalDateTime.now().minusDays(2))
+                    .end(LocalDateTime.now().minusDays(1))
+                    .build());
+        });
+
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Comment c WHERE c.item.id = :itemId")
+                    .setParameter("itemId", item.getId())
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Booking b WHERE b.item.id = :itemId")
+                    .setParameter("itemId", item.getId())
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Item i WHERE i.id = :itemId")
+                    .setParameter("itemId", item.getId())
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM ItemRequest r WHERE r.id = :requestId")
+                    .setParameter("requestId", itemRequest.getId())
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM User u WHERE u.id IN (:ownerId, :bookerId)")
+                    .setParameter("ownerId", owner.getId())
+                    .setParameter("bookerId", booker.getId())
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    void getAllBookingsPageTest() throws Exception {
+        perform(get("/bookings")
+                .header("X-Sharer-User-Id", booker.getId()));
+        perform(get("/bookings")
+                .header("X-Sharer-User-Id", booker.getId()));
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+        assertLoadCount(User.class, 0);
+        assertLoadCount(Item.class, 0);
+    }
+
+    @Test
+    void getItemByIdTest() throws Exception {
+        perform(get("/items/" + item.getId())
+                .header("X-Sharer-User-Id", booker.getId()));
+        assertLoadCount(Item.class, 1);
+
+        perform(get("/items/" + item.getId())
+                .header("X-Sharer-User-Id", booker.getId()));
+        assertLoadCount(Item.class, 0);
+        assertThat(statistics.getSecondLevelCacheHitCount(), greaterThan(0L));
+    }
+
+    @Test
+    void createCommentTest() throws Exception {
+        perform(get("/users/" + booker.getId()));
+        perform(get("/items/" + item.getId())
+                .header("X-Sharer-User-Id", booker.getId()));
+
+        CommentDto commentDto = CommentDto.builder()
+                .text("Comment")
+                .build();
+
+        perform(post("/items/" + item.getId() + "/comment")
+                .header("X-Sharer-User-Id", booker.getId())
+                .content(objectMapper.writeValueAsString(commentDto))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON));
+
+        assertLoadCount(User.class, 0);
+        assertLoadCount(Item.class, 0);
+    }
+
+    @Test
+    void getItemRequestByIdTest() throws Exception {
+        perform(get("/requests/" + itemRequest.getId())
+                .header("X-Sharer-User-Id", booker.getId()));
+        perform(get("/requests/" + itemRequest.getId())
+                .header("X-Sharer-User-Id", booker.getId()));
+
+        assertLoadCount(ItemRequest.class, 0);
+    }
+
+    private void perform(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk());
+    }
+
+    private void assertLoadCount(Class<?> entityClass, long expected) {
+        assertThat(statistics.getEntityStatistics(entityClass.getName()).getLoadCount(), equalTo(expected));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,363 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.TestUtil.persistUser;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class StatementCountIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User owner;
+    private User booker;
+    private User requestor;
+    private Item item;
+    private ItemRequest itemRequest;
+    private Booking waitingBooking;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        owner = persistUser(entityManager, "owner");
+        booker = persistUser(entityManager, "booker");
+        requestor = persistUser(entityManager, "requestor");
+
+        itemRequest = ItemRequest.builder()
+                .description("Request")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build();
+        entityManager.persist(itemRequest);
+
+        item = Item.builder()
+                .name("Item")
+                .description("ItemDescr")
+                .available(true)
+                .owner(owner)
+                .itemRequest(itemRequest)
+                .build();
+        entityManager.persist(item);
+
+        entityManager.persist(Booking.builder()
+                .status(BookingStatus.APPROVED)
+                .user(booker)
+                .item(item)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .build());
+
+        waitingBooking = Booking.builder()
+                .status(BookingStatus.WAITING)
+                .user(booker)
+                .item(item)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+        entityManager.persist(waitingBooking);
+
+        entityManager.persist(Comment.builder()
+                .text("Comment")
+                .item(item)
+                .author(booker)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void getBookingByIdTest() throws Exception {
+        assertStatementCount(2, get("/bookings/" + waitingBooking.getId())
+                .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void getAllBookingsByStateTest() throws Exception {
+        assertStatementCount(2, get("/bookings")
+                .header("X-Sharer-User-Id", booker.getId()));
+        assertStatementCount(2, get("/bookings/owner")
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void getAllBookingsWithCachedUserTest() throws Exception {
+        assertStatementCount(2, get("/bookings")
+                .header("X-Sharer-User-Id", booker.getId()));
+        assertStatementCount(1, get("/bookings")
+                .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void createBookingTest() throws Exception {
+        BookingRequestDto requestDto = BookingRequestDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(10))
+                .end(LocalDateTime.now().plusDays(11))
+                .build();
+
+        assertStatementCount(4, post("/bookings")
+                .header("X-Sharer-User-Id", booker.getId())
+                .content(objectMapper.writeValueAsString(requestDto))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON));
+
+        requestDto.setStart(LocalDateTime.now().plusDays(20));
+        requestDto.setEnd(LocalDateTime.now().plusDays(21));
+
+        assertStatementCount(2, post("/bookings")
+                .header("X-Sharer-User-Id", booker.getId())
+                .content(objectMapper.writeValueAsString(requestDto))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void createBookingBatchTest() throws Exception {
+        List<BookingRequestDto> requestDtos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requestDtos.add(BookingRequestDto.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().plusDays(10 + i))
+                    .end(LocalDateTime.now().plusDays(11 + i))
+                    .build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .content(objectMapper.writeValueAsString(requestDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getEntityInsertCount(), equalTo(100L));
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(10L));
+    }
+
+    @Test
+    void approveBookingTest() throws Exception {
+        assertStatementCount(3, patch("/bookings/" + waitingBooking.getId())
+                .param("approved", "true")
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void getItemByIdTest() throws Exception {
+        assertStatementCount(5, get("/items/" + item.getId())
+                .header("X-Sharer-User-Id", owner.getId()));
+        assertStatementCount(3, get("/items/" + item.getId())
+                .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void getItemByIdNotModifiedTest() throws Exception {
+        String entityTag = mockMvc.perform(get("/items/" + item.getId())
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertStatementCount(1, get("/items/" + item.getId())
+                .header("X-Sharer-User-Id", owner.getId())
+                .header("If-None-Match", entityTag), status().isNotModified());
+    }
+
+    @Test
+    void getAllItemsByOwnerIdTest() throws Exception {
+        assertStatementCount(4, get("/items")
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void getAllItemsByOwnerIdLargePageTest() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            Item ownedItem = Item.builder()
+                    .name("Item " + i)
+                    .description("ItemDescr " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build();
+            entityManager.persist(ownedItem);
+
+            entityManager.persist(Booking.builder()
+                    .status(BookingStatus.APPROVED)
+                    .user(booker)
+                    .item(ownedItem)
+                    .start(LocalDateTime.now().minusDays(2))
+                    .end(LocalDateTime.now().minusDays(1))
+                    .build());
+
+            entityManager.persist(Booking.builder()
+                    .status(BookingStatus.APPROVED)
+                    .user(booker)
+                    .item(ownedItem)
+                    .start(LocalDateTime.now().plusDays(1))
+                    .end(LocalDateTime.now().plusDays(2))
+                    .build());
+
+            entityManager.persist(Comment.builder()
+                    .text("Comment " + i)
+                    .item(ownedItem)
+                    .author(booker)
+                    .created(LocalDateTime.now())
+                    .build());
+        }
+
+        MvcResult mvcResult = assertStatementCount(4, get("/items")
+                .param("from", "0")
+                .param("size", "20")
+                .header("X-Sharer-User-Id", owner.getId()));
+
+        List<ItemDto> itemList = objectMapper.readValue(mvcResult.getResponse().getContentAsString(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, ItemDto.class));
+
+        assertThat(itemList.size(), equalTo(11));
+        itemList.subList(1, itemList.size()).forEach(itemDto -> {
+            assertThat(itemDto.getLastBooking(), notNullValue());
+            assertThat(itemDto.getNextBooking(), notNullValue());
+            assertThat(itemDto.getComments().size(), equalTo(1));
+        });
+    }
+
+    @Test
+    void searchItemsTest() throws Exception {
+        assertStatementCount(1, get("/items/search")
+                .param("text", "item")
+                .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void createCommentTest() throws Exception {
+        CommentDto commentDto = CommentDto.builder()
+                .text("New comment")
+                .build();
+
+        assertStatementCount(4, post("/items/" + item.getId() + "/comment")
+                .header("X-Sharer-User-Id", booker.getId())
+                .content(objectMapper.writeValueAsString(commentDto))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void getItemRequestsTest() throws Exception {
+        assertStatementCount(4, get("/requests/" + itemRequest.getId())
+                .header("X-Sharer-User-Id", requestor.getId()));
+        assertStatementCount(2, get("/requests")
+                .header("X-Sharer-User-Id", requestor.getId()));
+        assertStatementCount(2, get("/requests/all")
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void getAllItemRequestsPageTest() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            ItemRequest pagedRequest = ItemRequest.builder()
+                    .description("Request " + i)
+                    .requestor(requestor)
+                    .created(LocalDateTime.now())
+                    .build();
+            entityManager.persist(pagedRequest);
+
+            entityManager.persist(Item.builder()
+                    .name("Item " + i)
+                    .description("ItemDescr " + i)
+                    .available(true)
+                    .owner(owner)
+                    .itemRequest(pagedRequest)
+                    .build());
+        }
+
+        assertStatementCount(2, get("/requests/all")
+                .param("from", "0")
+                .param("size", "20")
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void getItemRequestByIdNotModifiedTest() throws Exception {
+        String entityTag = mockMvc.perform(get("/requests/" + itemRequest.getId())
+                        .header("X-Sharer-User-Id", requestor.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertStatementCount(1, get("/requests/" + itemRequest.getId())
+                .header("X-Sharer-User-Id", requestor.getId())
+                .header("If-None-Match", entityTag), status().isNotModified());
+    }
+
+    private MvcResult assertStatementCount(long expected, MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        return assertStatementCount(expected, requestBuilder, status().isOk());
+    }
+
+    private MvcResult assertStatementCount(long expected, MockHttpServletRequestBuilder requestBuilder,
+                                           ResultMatcher statusMatcher) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andExpect(statusMatcher)
+                .andReturn();
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(expected));
+
+        return mvcResult;
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasProperty;
+import static ru.practicum.shareit.util.TestUtil.persistUser;
+
+/**
+ * Compares creating 10 000 bookings one {@code POST /bookings} at a time with one {@code POST /bookings/batch}, both
+ * over HTTP. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DirtiesContext
+public class BookingBatchBenchmarkTest {
+    private static final int BOOKING_COUNT = 10_000;
+    private static final int WARM_UP_COUNT = 500;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+    private User booker;
+    private List<Item> items;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = persistUser(entityManager, "owner");
+            booker = persistUser(entityManager, "booker");
+
+            items = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Item item = Item.builder()
+                        .name("Item " + i)
+                        .description("ItemDescr " + i)
+                        .available(true)
+                        .owner(owner)
+                        .build();
+                entityManager.persist(item);
+                items.add(item);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Booking b WHERE b.item IN :items")
+                    .setParameter("items", items)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Item i WHERE i IN :items")
+                    .setParameter("items", items)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM User u WHERE u.id IN (:ownerId, :bookerId)")
+                    .setParameter("ownerId", owner.getId())
+                    .setParameter("bookerId", booker.getId())
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    void createAllThroughputTest() {
+        createOneByOne(items.get(0), WARM_UP_COUNT);
+        createAll(items.get(1), WARM_UP_COUNT);
+
+        long perCallNanos = createOneByOne(items.get(2), BOOKING_COUNT);
+        long batchNanos = createAll(items.get(3), BOOKING_COUNT);
+
+        assertThat(String.format("%d bookings: per call %d ms, batch %d ms", BOOKING_COUNT,
+                        perCallNanos / 1_000_000, batchNanos / 1_000_000),
+                perCallNanos, greaterThanOrEqualTo(10 * batchNanos));
+    }
+
+    private long createOneByOne(Item item, int count) {
+        List<BookingRequestDto> requestDtos = getBookingRequestDtos(item, count);
+
+        long startedAt = System.nanoTime();
+        for (BookingRequestDto requestDto : requestDtos) {
+            ResponseEntity<BookingResponseDto> response = restTemplate.exchange("/bookings", HttpMethod.POST,
+                    new HttpEntity<>(requestDto, getHeaders()), BookingResponseDto.class);
+            assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        }
+        return System.nanoTime() - startedAt;
+    }
+
+    private long createAll(Item item, int count) {
+        List<BookingRequestDto> requestDtos = getBookingRequestDtos(item, count);
+
+        long startedAt = System.nanoTime();
+        ResponseEntity<List<BookingBatchResultDto>> response = restTemplate.exchange("/bookings/batch", HttpMethod.POST,
+                new HttpEntity<>(requestDtos, getHeaders()), new ParameterizedTypeReference<>() {
+                });
+        long elapsed = System.nanoTime() - startedAt;
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody().size(), equalTo(count));
+        assertThat(response.getBody(), everyItem(hasProperty("status", equalTo(200))));
+        return elapsed;
+    }
+
+    private List<BookingRequestDto> getBookingRequestDtos(Item item, int count) {
+        List<BookingRequestDto> requestDtos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requestDtos.add(BookingRequestDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusHours(2L * i))
+                    .end(start.plusHours(2L * i + 1))
+                    .build());
+        }
+        return requestDtos;
+    }
+
+    private HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(booker.getId()));
+        return headers;
+    }
+}
@@ -5,25 +5,40 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(BookingExporter.class)
 public class BookingControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -99,6 +114,30 @@ public class BookingControllerTest {
         verifyNoMoreInteractions(bookingService);
     }
 
+    @Test
+    void getAllByStateWithCursorTest() throws Exception {
+        int userId = 1;
+
+        BookingResponseDto responseDto1 = getBookingResponseDto(10);
+        responseDto1.setStart(LocalDateTime.of(2030, 1, 2, 10, 0));
+        BookingResponseDto responseDto2 = getBookingResponseDto(11);
+        responseDto2.setStart(LocalDateTime.of(2030, 1, 1, 10, 0));
+
+        when(bookingService.getAllByStateWithCursor(any(), eq(userId), any(BookingCursor.class), eq(2))).thenReturn(Arrays.asList(responseDto1, responseDto2));
+
+        mockMvc.perform(get("/bookings")
+                        .param("cursor", "")
+                        .param("size", "2")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, BookingCursor.of(responseDto2).encode()))
+                .andExpect(jsonPath("$[0].id").value(responseDto1.getId()))
+                .andExpect(jsonPath("$[1].id").value(responseDto2.getId()));
+
+        verify(bookingService, times(1)).getAllByStateWithCursor(eq(RequestBookingStatus.ALL), eq(userId), eq(BookingCursor.FIRST), eq(2));
+        verifyNoMoreInteractions(bookingService);
+    }
+
     @Test
     void createTest() throws Exception {
         int userId = 1;
@@ -126,6 +165,39 @@ public class BookingControllerTest {
         verifyNoMoreInteractions(bookingService);
     }
 
+    @Test
+    void createAllTest() throws Exception {
+        int userId = 1;
+
+        BookingRequestDto requestDto = BookingRequestDto.builder()
+                .start(LocalDateTime.now().plusDays(10))
+                .end(LocalDateTime.now().plusDays(20))
+                .itemId(1)
+                .build();
+
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.builder().status(200).booking(getBookingResponseDto(10)).build(),
+                BookingBatchResultDto.builder().status(409).error("Вещь уже забронирована на выбранные даты").build()
+        );
+
+        when(bookingService.createAll(anyList(), eq(userId))).thenReturn(results);
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(objectMapper.writeValueAsString(List.of(requestDto, requestDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].booking.id").value(10))
+                .andExpect(jsonPath("$[1].status").value(409))
+                .andExpect(jsonPath("$[1].error").value("Вещь уже забронирована на выбранные даты"));
+
+        verify(bookingService, times(1)).createAll(argThat(dtos -> dtos.size() == 2), eq(userId));
+        verifyNoMoreInteractions(bookingService);
+    }
+
     @Test
     void approveTest() throws Exception {
         int userId = 1;
@@ -144,6 +216,79 @@ public class BookingControllerTest {
         verifyNoMoreInteractions(bookingService);
     }
 
+    @Test
+    void exportForOwnerTest() throws Exception {
+        int userId = 1;
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+        doAnswer(invocation -> {
+            Consumer<BookingExportDto> consumer = invocation.getArgument(2);
+            consumer.accept(new BookingExportDto(11, start, start.plusDays(1), BookingStatus.APPROVED, 2, 10, "Дрель, \"ударная\""));
+            consumer.accept(new BookingExportDto(12, start.plusDays(2), start.plusDays(3), BookingStatus.WAITING, 3, 10, "Дрель"));
+            return null;
+        }).when(bookingService).export(eq(BookingRole.OWNER), eq(userId), any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines.length, equalTo(3));
+        assertThat(lines[0], equalTo("id,start,end,status,bookerId,itemId,itemName"));
+        assertThat(lines[1], equalTo("11,2030-01-01T10:00:00,2030-01-02T10:00:00,APPROVED,2,10,\"Дрель, \"\"ударная\"\"\""));
+        assertThat(lines[2], equalTo("12,2030-01-03T10:00:00,2030-01-04T10:00:00,WAITING,3,10,Дрель"));
+
+        verify(bookingService, times(1)).checkUserExists(eq(userId));
+        verify(bookingService, times(1)).export(eq(BookingRole.OWNER), eq(userId), any());
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void exportTest() throws Exception {
+        int userId = 1;
+        LocalDateTime start = LocalDateTime.now();
+
+        doAnswer(invocation -> {
+            Consumer<BookingExportDto> consumer = invocation.getArgument(2);
+            consumer.accept(new BookingExportDto(11, start, start.plusDays(1), BookingStatus.APPROVED, userId, 10, "Item"));
+            consumer.accept(new BookingExportDto(12, start.minusDays(2), start.minusDays(1), BookingStatus.REJECTED, userId, 20, "Item"));
+            return null;
+        }).when(bookingService).export(eq(BookingRole.BOOKER), eq(userId), any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines.length, equalTo(2));
+        assertThat(objectMapper.readValue(lines[0], BookingExportDto.class).getId(), equalTo(11));
+        assertThat(objectMapper.readValue(lines[1], BookingExportDto.class).getItemId(), equalTo(20));
+        assertThat(objectMapper.readValue(lines[1], BookingExportDto.class).getStatus(), equalTo(BookingStatus.REJECTED));
+    }
+
+    @Test
+    void exportTest_UserNotFound() throws Exception {
+        doThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден"))
+                .when(bookingService).checkUserExists(eq(2));
+
+        mockMvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(status().isNotFound());
+
+        verify(bookingService, never()).export(any(), anyInt(), any());
+    }
+
     private BookingResponseDto getBookingResponseDto(int id) {
         return BookingResponseDto.builder()
                 .id(id)
@@ -28,6 +28,8 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -184,6 +186,68 @@ public class BookingIntegrationTest {
         assertThat(bookingList.get(2).getId(), equalTo(1));
     }
 
+    @Test
+    @Order(3)
+    @Transactional
+    void cursorPaginationTest() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/bookings/owner")
+                        .param("state", "ALL")
+                        .param("cursor", "")
+                        .param("size", "3")
+                        .header("X-Sharer-User-Id", String.valueOf(1)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<BookingResponseDto> bookingList = objectMapper.readValue(mvcResult.getResponse().getContentAsString(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, BookingResponseDto.class));
+
+        assertThat(bookingList.size(), equalTo(3));
+        assertThat(bookingList.get(0).getId(), equalTo(7));
+        assertThat(bookingList.get(1).getId(), equalTo(6));
+        assertThat(bookingList.get(2).getId(), equalTo(5));
+
+        String cursor = mvcResult.getResponse().getHeader(BookingController.NEXT_CURSOR_HEADER);
+        assertThat(cursor, notNullValue());
+
+        mvcResult = mockMvc.perform(get("/bookings/owner")
+                        .param("state", "ALL")
+                        .param("cursor", cursor)
+                        .param("size", "3")
+                        .header("X-Sharer-User-Id", String.valueOf(1)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        bookingList = objectMapper.readValue(mvcResult.getResponse().getContentAsString(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, BookingResponseDto.class));
+
+        assertThat(bookingList.size(), equalTo(3));
+        assertThat(bookingList.get(0).getId(), equalTo(4));
+        assertThat(bookingList.get(1).getId(), equalTo(3));
+        assertThat(bookingList.get(2).getId(), equalTo(2));
+
+        cursor = mvcResult.getResponse().getHeader(BookingController.NEXT_CURSOR_HEADER);
+
+        mvcResult = mockMvc.perform(get("/bookings")
+                        .param("state", "ALL")
+                        .param("cursor", cursor)
+                        .param("size", "3")
+                        .header("X-Sharer-User-Id", String.valueOf(2)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        bookingList = objectMapper.readValue(mvcResult.getResponse().getContentAsString(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, BookingResponseDto.class));
+
+        assertThat(bookingList.size(), equalTo(1));
+        assertThat(bookingList.get(0).getId(), equalTo(1));
+        assertThat(mvcResult.getResponse().getHeader(BookingController.NEXT_CURSOR_HEADER), nullValue());
+
+        mockMvc.perform(get("/bookings")
+                        .param("cursor", "not-a-cursor")
+                        .header("X-Sharer-User-Id", String.valueOf(2)))
+                .andExpect(status().isBadRequest());
+    }
+
     private User getUser(int id) {
         User user = User.builder()
                 .name("User " + id)
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingIntervalIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Test
+    void overlapsTest() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, true, 100, Duration.ofMinutes(10),
+                new SimpleMeterRegistry());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        when(bookingRepository.findAllIntervalsByItemIdAndStatusIn(eq(10), eq(BookingStatus.ACTIVE), any()))
+                .thenReturn(List.of(new BookingInterval(1, start, start.plusDays(1))));
+
+        assertThat(index.overlaps(10, start.plusHours(12), start.plusDays(2)), equalTo(true));
+        assertThat(index.overlaps(10, start.plusDays(1), start.plusDays(2)), equalTo(false));
+        assertThat(index.overlaps(10, start.minusDays(1), start), equalTo(false));
+
+        index.add(10, new BookingInterval(2, start.plusDays(1), start.plusDays(2)));
+
+        assertThat(index.overlaps(10, start.plusDays(1), start.plusDays(2)), equalTo(true));
+
+        verify(bookingRepository, times(1)).findAllIntervalsByItemIdAndStatusIn(eq(10), eq(BookingStatus.ACTIVE), any());
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void overlapsTest_Disabled() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, false, 100, Duration.ofMinutes(10),
+                new SimpleMeterRegistry());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        when(bookingRepository.existsByItemIdAndStatusInAndEndAfterAndStartBefore(eq(10), eq(BookingStatus.ACTIVE),
+                eq(start), eq(start.plusDays(1)))).thenReturn(true);
+
+        assertThat(index.overlaps(10, start, start.plusDays(1)), equalTo(true));
+
+        index.add(10, new BookingInterval(2, start.plusDays(1), start.plusDays(2)));
+
+        verify(bookingRepository, times(1)).existsByItemIdAndStatusInAndEndAfterAndStartBefore(eq(10),
+                eq(BookingStatus.ACTIVE), eq(start), eq(start.plusDays(1)));
+        verifyNoMoreInteractions(bookingRepository);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.TestUtil.persistUser;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext
+public class BookingOverlapIntegrationTest {
+    private static final int CONCURRENT_REQUESTS = 8;
+    private static final int BATCH_SIZE = 1200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = persistUser(entityManager, "owner");
+            booker = persistUser(entityManager, "booker");
+
+            item = Item.builder()
+                    .name("Item")
+                    .description("ItemDescr")
+                    .available(true)
+                    .owner(owner)
+                    .build();
+            entityManager.persist(item);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Booking b WHERE b.item.id = :itemId")
+                    .setParameter("itemId", item.getId())
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Item i WHERE i.id = :itemId")
+                    .setParameter("itemId", item.getId())
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM User u WHERE u.id IN (:ownerId, :bookerId)")
+                    .setParameter("ownerId", owner.getId())
+                    .setParameter("bookerId", booker.getId())
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    void createOverlappingBookingTest() throws Exception {
+        BookingResponseDto booking = objectMapper.readValue(create(start, start.plusDays(2))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), BookingResponseDto.class);
+
+        create(start.minusHours(1), start.plusHours(1)).andExpect(status().isConflict());
+        create(start.plusDays(1), start.plusDays(3)).andExpect(status().isConflict());
+        create(start.plusHours(1), start.plusHours(2)).andExpect(status().isConflict());
+
+        create(start.minusDays(1), start).andExpect(status().isOk());
+        create(start.plusDays(2), start.plusDays(3)).andExpect(status().isOk());
+
+        mockMvc.perform(patch("/bookings/" + booking.getId())
+                        .param("approved", "false")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk());
+
+        create(start.plusHours(1), start.plusHours(2)).andExpect(status().isOk());
+    }
+
+    @Test
+    void createAllTest() throws Exception {
+        create(start, start.plusDays(1)).andExpect(status().isOk());
+
+        List<BookingRequestDto> requestDtos = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            requestDtos.add(getBookingRequestDto(start.plusDays(i), start.plusDays(i + 1)));
+        }
+        requestDtos.add(getBookingRequestDto(start.plusDays(2).plusHours(1), start.plusDays(2).plusHours(2)));
+
+        List<BookingBatchResultDto> results = objectMapper.readValue(mockMvc.perform(post("/bookings/batch")
+                                .header("X-Sharer-User-Id", booker.getId())
+                                .content(objectMapper.writeValueAsString(requestDtos))
+                                .characterEncoding(StandardCharsets.UTF_8)
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString(),
+                new TypeReference<>() {
+                });
+
+        assertThat(results.size(), equalTo(BATCH_SIZE + 1));
+        assertThat(results.get(0).getStatus(), equalTo(409));
+        assertThat(results.get(BATCH_SIZE).getStatus(), equalTo(409));
+
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 1; i < BATCH_SIZE; i++) {
+            assertThat(results.get(i).getStatus(), equalTo(200));
+            assertThat(results.get(i).getBooking().getStart(), equalTo(start.plusDays(i)));
+            ids.add(results.get(i).getBooking().getId());
+        }
+        assertThat(ids.size(), equalTo(BATCH_SIZE - 1));
+
+        Long stored = transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT COUNT(b) FROM Booking b WHERE b.item.id = :itemId AND b.id IN :ids", Long.class)
+                .setParameter("itemId", item.getId())
+                .setParameter("ids", ids)
+                .getSingleResult());
+        assertThat(stored, equalTo((long) BATCH_SIZE - 1));
+
+        create(start.plusDays(3).plusHours(1), start.plusDays(3).plusHours(2)).andExpect(status().isConflict());
+    }
+
+    @Test
+    void createConcurrentOverlappingBookingsTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        CountDownLatch ready = new CountDownLatch(CONCURRENT_REQUESTS);
+
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                LocalDateTime requestStart = start.plusHours(i);
+                statuses.add(executor.submit((Callable<Integer>) () -> {
+                    ready.countDown();
+                    ready.await();
+                    return create(requestStart, requestStart.plusDays(1)).andReturn().getResponse().getStatus();
+                }));
+            }
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : statuses) {
+                results.add(future.get());
+            }
+
+            List<Integer> expected = new ArrayList<>();
+            expected.add(200);
+            for (int i = 1; i < CONCURRENT_REQUESTS; i++) {
+                expected.add(409);
+            }
+            assertThat(results, containsInAnyOrder(expected.toArray()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ResultActions create(LocalDateTime start, LocalDateTime end) throws Exception {
+        BookingRequestDto requestDto = getBookingRequestDto(start, end);
+
+        return mockMvc.perform(post("/bookings")
+                .header("X-Sharer-User-Id", booker.getId())
+                .content(objectMapper.writeValueAsString(requestDto))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private BookingRequestDto getBookingRequestDto(LocalDateTime start, LocalDateTime end) {
+        return BookingRequestDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(end)
+                .build();
+    }
+}
\ No newline at end of file
@@ -1,17 +1,27 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.RequestBookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
@@ -108,4 +118,263 @@ public class BookingRepositoryTest {
 
         assertThat(bookingRepository.findAllApprovedByItemIdAndUserId(item1.getId(), booker1.getId(), timestamp)).size().isEqualTo(2);
     }
+
+    @Test
+    public void findNextAndLastByItemIdTest() {
+        LocalDateTime timestamp = LocalDateTime.now();
+        Pageable firstResult = PageRequest.of(0, 1);
+
+        User owner = testEntityManager.persist(User.builder()
+                .name("Owner")
+                .email("owner@user.com")
+                .build());
+
+        User booker = testEntityManager.persist(User.builder()
+                .name("Booker")
+                .email("booker@user.com")
+                .build());
+
+        Item item1 = testEntityManager.persist(Item.builder()
+                .name("Item1")
+                .description("Item1")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Item item2 = testEntityManager.persist(Item.builder()
+                .name("Item2")
+                .description("Item2")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        assertThat(bookingRepository.findNextByItemId(item1.getId(), timestamp, firstResult)).isEmpty();
+        assertThat(bookingRepository.findLastByItemId(item1.getId(), timestamp, firstResult)).isEmpty();
+
+        Booking oldBooking = testEntityManager.persist(Booking.builder()
+                .start(timestamp.minusDays(3))
+                .end(timestamp.minusDays(2))
+                .item(item1)
+                .user(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        Booking lastBooking = testEntityManager.persist(Booking.builder()
+                .start(timestamp.minusDays(2))
+                .end(timestamp.minusDays(1))
+                .item(item1)
+                .user(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        testEntityManager.persist(Booking.builder()
+                .start(timestamp.plusDays(1))
+                .end(timestamp.plusDays(2))
+                .item(item1)
+                .user(booker)
+                .status(BookingStatus.REJECTED)
+                .build());
+
+        Booking nextBooking = testEntityManager.persist(Booking.builder()
+                .start(timestamp.plusDays(2))
+                .end(timestamp.plusDays(3))
+                .item(item1)
+                .user(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        testEntityManager.persist(Booking.builder()
+                .start(timestamp.plusDays(4))
+                .end(timestamp.plusDays(5))
+                .item(item1)
+                .user(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        Booking item2LastBooking = testEntityManager.persist(Booking.builder()
+                .start(timestamp.minusDays(5))
+                .end(timestamp.minusDays(4))
+                .item(item2)
+                .user(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        List<ItemDto.ItemBooking> next = bookingRepository.findNextByItemId(item1.getId(), timestamp, firstResult);
+        assertThat(next).hasSize(1);
+        assertThat(next.get(0).getId()).isEqualTo(nextBooking.getId());
+        assertThat(next.get(0).getBookerId()).isEqualTo(booker.getId());
+
+        List<ItemDto.ItemBooking> last = bookingRepository.findLastByItemId(item1.getId(), timestamp, firstResult);
+        assertThat(last).hasSize(1);
+        assertThat(last.get(0).getId()).isEqualTo(lastBooking.getId());
+        assertThat(last.get(0).getBookerId()).isEqualTo(booker.getId());
+
+        List<Integer> itemIds = List.of(item1.getId(), item2.getId());
+
+        assertThat(bookingRepository.findAllNextByItemIdIn(itemIds, timestamp))
+                .extracting(Booking::getId)
+                .containsExactly(nextBooking.getId());
+        assertThat(bookingRepository.findAllLastByItemIdIn(itemIds, timestamp))
+                .extracting(Booking::getId)
+                .containsExactlyInAnyOrder(lastBooking.getId(), item2LastBooking.getId())
+                .doesNotContain(oldBooking.getId());
+    }
+
+    @Test
+    public void findAllByStateTest() {
+        LocalDateTime timestamp = LocalDateTime.now();
+        Pageable firstPage = PageRequest.of(0, 10);
+
+        User owner = testEntityManager.persist(User.builder()
+                .name("Owner")
+                .email("owner@user.com")
+                .build());
+
+        User booker = testEntityManager.persist(User.builder()
+                .name("Booker")
+                .email("booker@user.com")
+                .build());
+
+        Item item = testEntityManager.persist(Item.builder()
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Booking pastBooking = testEntityManager.persist(Booking.builder()
+                .start(timestamp.minusDays(2))
+                .end(timestamp.minusDays(1))
+                .item(item)
+                .user(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        Booking currentBooking = testEntityManager.persist(Booking.builder()
+                .start(timestamp.minusHours(1))
+                .end(timestamp.plusHours(1))
+                .item(item)
+                .user(booker)
+                .status(BookingStatus.REJECTED)
+                .build());
+
+        Booking futureBooking = testEntityManager.persist(Booking.builder()
+                .start(timestamp.plusDays(1))
+                .end(timestamp.plusDays(2))
+                .item(item)
+                .user(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        List<BookingResponseDto> all = bookingRepository.findAllByState(BookingRole.BOOKER, RequestBookingStatus.ALL,
+                booker.getId(), timestamp, null, firstPage);
+        assertThat(all).extracting(BookingResponseDto::getId)
+                .containsExactly(futureBooking.getId(), currentBooking.getId(), pastBooking.getId());
+        assertThat(all.get(0).getBooker().getId()).isEqualTo(booker.getId());
+        assertThat(all.get(0).getItem().getName()).isEqualTo(item.getName());
+        assertThat(testEntityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(0);
+
+        assertThat(bookingRepository.findAllByState(BookingRole.OWNER, RequestBookingStatus.ALL, owner.getId(), timestamp, null, firstPage))
+                .extracting(BookingResponseDto::getId)
+                .containsExactly(futureBooking.getId(), currentBooking.getId(), pastBooking.getId());
+        assertThat(bookingRepository.findAllByState(BookingRole.OWNER, RequestBookingStatus.ALL, booker.getId(), timestamp, null, firstPage))
+                .isEmpty();
+
+        assertThat(bookingRepository.findAllByState(BookingRole.OWNER, RequestBookingStatus.PAST, owner.getId(), timestamp, null, firstPage))
+                .extracting(BookingResponseDto::getId)
+                .containsExactly(pastBooking.getId());
+        assertThat(bookingRepository.findAllByState(BookingRole.BOOKER, RequestBookingStatus.CURRENT, booker.getId(), timestamp, null, firstPage))
+                .extracting(BookingResponseDto::getId)
+                .containsExactly(currentBooking.getId());
+        assertThat(bookingRepository.findAllByState(BookingRole.BOOKER, RequestBookingStatus.FUTURE, booker.getId(), timestamp, null, firstPage))
+                .extracting(BookingResponseDto::getId)
+                .containsExactly(futureBooking.getId());
+        assertThat(bookingRepository.findAllByState(BookingRole.OWNER, RequestBookingStatus.WAITING, owner.getId(), timestamp, null, firstPage))
+                .extracting(BookingResponseDto::getId)
+                .containsExactly(futureBooking.getId());
+        assertThat(bookingRepository.findAllByState(BookingRole.BOOKER, RequestBookingStatus.REJECTED, booker.getId(), timestamp, null, firstPage))
+                .extracting(BookingResponseDto::getId)
+                .containsExactly(currentBooking.getId());
+
+        assertThat(bookingRepository.findAllByState(BookingRole.BOOKER, RequestBookingStatus.ALL, booker.getId(), timestamp, null, PageRequest.of(1, 2)))
+                .extracting(BookingResponseDto::getId)
+                .containsExactly(pastBooking.getId());
+        assertThat(bookingRepository.findAllByState(BookingRole.BOOKER, RequestBookingStatus.ALL, booker.getId(), timestamp,
+                BookingCursor.of(all.get(0)), PageRequest.of(0, 1)))
+                .extracting(BookingResponseDto::getId)
+                .containsExactly(currentBooking.getId());
+    }
+
+    @Test
+    public void findExportChunkByBookerIdAndOwnerIdTest() {
+        LocalDateTime timestamp = LocalDateTime.now();
+
+        User owner = testEntityManager.persist(User.builder()
+                .name("Owner")
+                .email("owner@user.com")
+                .build());
+
+        User booker = testEntityManager.persist(User.builder()
+                .name("Booker")
+                .email("booker@user.com")
+                .build());
+
+        Item item = testEntityManager.persist(Item.builder()
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Booking pastBooking = testEntityManager.persist(Booking.builder()
+                .start(timestamp.minusDays(2))
+                .end(timestamp.minusDays(1))
+                .item(item)
+                .user(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        Item otherItem = testEntityManager.persist(Item.builder()
+                .name("Other item")
+                .description("Other item")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Booking otherBooking = testEntityManager.persist(Booking.builder()
+                .start(timestamp.plusDays(3))
+                .end(timestamp.plusDays(4))
+                .item(otherItem)
+                .user(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        Booking futureBooking = testEntityManager.persist(Booking.builder()
+                .start(timestamp.plusDays(1))
+                .end(timestamp.plusDays(2))
+                .item(item)
+                .user(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+
+        assertThat(bookingRepository.findExportChunkByBookerId(booker.getId(), 0, PageRequest.of(0, 10)))
+                .extracting(BookingExportDto::getId)
+                .containsExactly(pastBooking.getId(), otherBooking.getId(), futureBooking.getId());
+        assertThat(bookingRepository.findExportChunkByBookerId(booker.getId(), pastBooking.getId(), PageRequest.of(0, 10)))
+                .extracting(BookingExportDto::getId)
+                .containsExactly(otherBooking.getId(), futureBooking.getId());
+        assertThat(bookingRepository.findExportChunkByOwnerId(owner.getId(), 0, 0, PageRequest.of(0, 10)))
+                .extracting(BookingExportDto::getId)
+                .containsExactly(pastBooking.getId(), futureBooking.getId(), otherBooking.getId());
+        assertThat(bookingRepository.findExportChunkByOwnerId(owner.getId(), item.getId(), pastBooking.getId(), PageRequest.of(0, 1)))
+                .extracting(BookingExportDto::getId)
+                .containsExactly(futureBooking.getId());
+        assertThat(bookingRepository.findExportChunkByOwnerId(owner.getId(), item.getId(), futureBooking.getId(), PageRequest.of(0, 10)))
+                .extracting(BookingExportDto::getItemName)
+                .containsExactly("Other item");
+        assertThat(bookingRepository.findExportChunkByOwnerId(booker.getId(), 0, 0, PageRequest.of(0, 10))).isEmpty();
+    }
 }
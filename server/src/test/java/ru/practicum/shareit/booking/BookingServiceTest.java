@@ -5,31 +5,49 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.booking.dto.BookingItemInterval;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,9 +61,18 @@ public class BookingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @Test
     void getByIdTest() {
         User owner = getUser(1);
@@ -56,7 +83,7 @@ public class BookingServiceTest {
         Booking booking = getBooking(100, booker, item);
 
         when(bookingRepository.findById(eq(booking.getId()))).thenReturn(Optional.ofNullable(booking));
-        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.ofNullable(owner));
+        when(userCache.exists(eq(owner.getId()))).thenReturn(true);
 
         BookingResponseDto responseDto = bookingService.getById(booking.getId(), owner.getId());
 
@@ -67,8 +94,8 @@ public class BookingServiceTest {
         assertThat(responseDto.getItem().getName(), equalTo(item.getName()));
 
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
-        verify(userRepository, times(1)).findById(eq(owner.getId()));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verify(userCache, times(1)).exists(eq(owner.getId()));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
     }
 
     @Test
@@ -82,7 +109,7 @@ public class BookingServiceTest {
         Booking booking = getBooking(100, booker, item);
 
         when(bookingRepository.findById(eq(booking.getId()))).thenReturn(Optional.ofNullable(booking));
-        when(userRepository.findById(eq(unrelated.getId()))).thenReturn(Optional.ofNullable(unrelated));
+        when(userCache.exists(eq(unrelated.getId()))).thenReturn(true);
 
         ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
             bookingService.getById(booking.getId(), unrelated.getId());
@@ -91,8 +118,8 @@ public class BookingServiceTest {
         assertThat(e.getStatus(), equalTo(HttpStatus.NOT_FOUND));
 
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
-        verify(userRepository, times(1)).findById(eq(unrelated.getId()));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verify(userCache, times(1)).exists(eq(unrelated.getId()));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
     }
 
     @Test
@@ -100,101 +127,118 @@ public class BookingServiceTest {
         User owner = getUser(1);
         User booker = getUser(2);
 
-        Item item1 = getItem(10, owner);
-        Item item2 = getItem(11, owner);
-
-        Booking booking1 = getBooking(100, booker, item1);
-        booking1.setStart(LocalDateTime.now().minusDays(10));
-        booking1.setEnd(LocalDateTime.now().minusDays(9));
-        Booking booking2 = getBooking(101, booker, item2);
-        booking2.setStart(LocalDateTime.now().minusDays(8));
-        booking2.setEnd(LocalDateTime.now().minusDays(7));
-
-        List<Booking> bookingList = Arrays.asList(
-                booking1,
-                booking2
+        List<BookingResponseDto> bookingList = Arrays.asList(
+                BookingMapper.toDto(getBooking(100, booker, getItem(10, owner))),
+                BookingMapper.toDto(getBooking(101, booker, getItem(11, owner)))
         );
 
-        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.ofNullable(booker));
-        when(bookingRepository.findAllByUserIdOrderByStartDesc(eq(booker.getId()), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByUserIdAndEndBeforeOrderByStartDesc(eq(booker.getId()), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByUserIdAndStartAfterOrderByStartDesc(eq(booker.getId()), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByUserIdAndStartBeforeAndEndAfterOrderByStartDesc(eq(booker.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByUserIdAndStatusOrderByStartDesc(eq(booker.getId()), eq(BookingStatus.WAITING), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByUserIdAndStatusOrderByStartDesc(eq(booker.getId()), eq(BookingStatus.REJECTED), any(Pageable.class))).thenReturn(bookingList);
+        when(userCache.exists(eq(booker.getId()))).thenReturn(true);
+        when(bookingRepository.findAllByState(eq(BookingRole.BOOKER), any(RequestBookingStatus.class), eq(booker.getId()), any(LocalDateTime.class), isNull(), eq(PageRequest.of(1, 10))))
+                .thenReturn(bookingList);
 
         List<BookingResponseDto> responseDtoList;
 
-        responseDtoList = bookingService.getAllByState(RequestBookingStatus.ALL, booker.getId(), 0, 10);
-        bookingService.getAllByState(RequestBookingStatus.PAST, booker.getId(), 0, 10);
-        bookingService.getAllByState(RequestBookingStatus.FUTURE, booker.getId(), 0, 10);
-        bookingService.getAllByState(RequestBookingStatus.CURRENT, booker.getId(), 0, 10);
-        bookingService.getAllByState(RequestBookingStatus.WAITING, booker.getId(), 0, 10);
-        bookingService.getAllByState(RequestBookingStatus.REJECTED, booker.getId(), 0, 10);
-
-        assertThat(responseDtoList.get(0).getId(), equalTo(booking1.getId()));
-        assertThat(responseDtoList.get(1).getId(), equalTo(booking2.getId()));
-
-        verify(userRepository, times(6)).findById(eq(booker.getId()));
-        verify(bookingRepository, times(1)).findAllByUserIdOrderByStartDesc(eq(booker.getId()), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByUserIdAndEndBeforeOrderByStartDesc(eq(booker.getId()), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByUserIdAndStartAfterOrderByStartDesc(eq(booker.getId()), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByUserIdAndStartBeforeAndEndAfterOrderByStartDesc(eq(booker.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByUserIdAndStatusOrderByStartDesc(eq(booker.getId()), eq(BookingStatus.WAITING), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByUserIdAndStatusOrderByStartDesc(eq(booker.getId()), eq(BookingStatus.REJECTED), any(Pageable.class));
-
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        responseDtoList = bookingService.getAllByState(RequestBookingStatus.ALL, booker.getId(), 10, 10);
+        bookingService.getAllByState(RequestBookingStatus.PAST, booker.getId(), 10, 10);
+
+        assertThat(responseDtoList.get(0).getId(), equalTo(100));
+        assertThat(responseDtoList.get(1).getId(), equalTo(101));
+
+        verify(userCache, times(2)).exists(eq(booker.getId()));
+        verify(bookingRepository, times(1)).findAllByState(eq(BookingRole.BOOKER), eq(RequestBookingStatus.ALL), eq(booker.getId()), any(LocalDateTime.class), isNull(), eq(PageRequest.of(1, 10)));
+        verify(bookingRepository, times(1)).findAllByState(eq(BookingRole.BOOKER), eq(RequestBookingStatus.PAST), eq(booker.getId()), any(LocalDateTime.class), isNull(), eq(PageRequest.of(1, 10)));
+
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
     }
 
     @Test
-    void getAllByStateForOwnerTest() {
+    void getAllByStateTest_UnknownState() {
+        User booker = getUser(2);
+
+        when(userCache.exists(eq(booker.getId()))).thenReturn(true);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
+            bookingService.getAllByState(null, booker.getId(), 0, 10);
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.NOT_IMPLEMENTED));
+
+        verify(userCache, times(1)).exists(eq(booker.getId()));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
+    }
+
+    @Test
+    void getAllByStateWithCursorTest() {
         User owner = getUser(1);
         User booker = getUser(2);
 
-        Item item1 = getItem(10, owner);
-        Item item2 = getItem(11, owner);
+        BookingResponseDto bookingResponseDto = BookingMapper.toDto(getBooking(100, booker, getItem(10, owner)));
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now(), 200);
+
+        when(userCache.exists(eq(booker.getId()))).thenReturn(true);
+        when(bookingRepository.findAllByState(eq(BookingRole.BOOKER), eq(RequestBookingStatus.ALL), eq(booker.getId()), any(LocalDateTime.class), eq(cursor), eq(PageRequest.of(0, 10))))
+                .thenReturn(List.of(bookingResponseDto));
+        when(bookingRepository.findAllByState(eq(BookingRole.OWNER), eq(RequestBookingStatus.WAITING), eq(booker.getId()), any(LocalDateTime.class), eq(cursor), eq(PageRequest.of(0, 10))))
+                .thenReturn(List.of());
+
+        List<BookingResponseDto> responseDtoList = bookingService.getAllByStateWithCursor(RequestBookingStatus.ALL, booker.getId(), cursor, 10);
+        List<BookingResponseDto> ownerResponseDtoList = bookingService.getAllByStateForOwnerWithCursor(RequestBookingStatus.WAITING, booker.getId(), cursor, 10);
 
-        Booking booking1 = getBooking(100, booker, item1);
-        booking1.setStart(LocalDateTime.now().minusDays(10));
-        booking1.setEnd(LocalDateTime.now().minusDays(9));
-        Booking booking2 = getBooking(101, booker, item2);
-        booking2.setStart(LocalDateTime.now().minusDays(8));
-        booking2.setEnd(LocalDateTime.now().minusDays(7));
+        assertThat(responseDtoList.size(), equalTo(1));
+        assertThat(responseDtoList.get(0).getId(), equalTo(bookingResponseDto.getId()));
+        assertThat(ownerResponseDtoList.size(), equalTo(0));
+
+        verify(userCache, times(2)).exists(eq(booker.getId()));
+        verify(bookingRepository, times(1)).findAllByState(eq(BookingRole.BOOKER), eq(RequestBookingStatus.ALL), eq(booker.getId()), any(LocalDateTime.class), eq(cursor), eq(PageRequest.of(0, 10)));
+        verify(bookingRepository, times(1)).findAllByState(eq(BookingRole.OWNER), eq(RequestBookingStatus.WAITING), eq(booker.getId()), any(LocalDateTime.class), eq(cursor), eq(PageRequest.of(0, 10)));
+
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
+    }
+
+    @Test
+    void getAllByStateWithCursorTest_NonPositiveSize() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
+            bookingService.getAllByStateWithCursor(RequestBookingStatus.ALL, 2, BookingCursor.FIRST, 0);
+        });
 
-        List<Booking> bookingList = Arrays.asList(
-                booking1,
-                booking2
+        assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+
+        e = assertThrows(ResponseStatusException.class, () -> {
+            bookingService.getAllByStateForOwnerWithCursor(RequestBookingStatus.ALL, 2, BookingCursor.FIRST, -1);
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
+    }
+
+    @Test
+    void getAllByStateForOwnerTest() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        List<BookingResponseDto> bookingList = Arrays.asList(
+                BookingMapper.toDto(getBooking(100, booker, getItem(10, owner))),
+                BookingMapper.toDto(getBooking(101, booker, getItem(11, owner)))
         );
 
-        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.ofNullable(owner));
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(eq(owner.getId()), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(eq(owner.getId()), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(eq(owner.getId()), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(eq(owner.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(eq(owner.getId()), eq(BookingStatus.WAITING), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(eq(owner.getId()), eq(BookingStatus.REJECTED), any(Pageable.class))).thenReturn(bookingList);
+        when(userCache.exists(eq(owner.getId()))).thenReturn(true);
+        when(bookingRepository.findAllByState(eq(BookingRole.OWNER), any(RequestBookingStatus.class), eq(owner.getId()), any(LocalDateTime.class), isNull(), eq(PageRequest.of(0, 10))))
+                .thenReturn(bookingList);
 
         List<BookingResponseDto> responseDtoList;
 
         responseDtoList = bookingService.getAllByStateForOwner(RequestBookingStatus.ALL, owner.getId(), 0, 10);
-        bookingService.getAllByStateForOwner(RequestBookingStatus.PAST, owner.getId(), 0, 10);
-        bookingService.getAllByStateForOwner(RequestBookingStatus.FUTURE, owner.getId(), 0, 10);
-        bookingService.getAllByStateForOwner(RequestBookingStatus.CURRENT, owner.getId(), 0, 10);
-        bookingService.getAllByStateForOwner(RequestBookingStatus.WAITING, owner.getId(), 0, 10);
         bookingService.getAllByStateForOwner(RequestBookingStatus.REJECTED, owner.getId(), 0, 10);
 
-        assertThat(responseDtoList.get(0).getId(), equalTo(booking1.getId()));
-        assertThat(responseDtoList.get(1).getId(), equalTo(booking2.getId()));
+        assertThat(responseDtoList.get(0).getId(), equalTo(100));
+        assertThat(responseDtoList.get(1).getId(), equalTo(101));
 
-        verify(userRepository, times(6)).findById(eq(owner.getId()));
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdOrderByStartDesc(eq(owner.getId()), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(eq(owner.getId()), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStartAfterOrderByStartDesc(eq(owner.getId()), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(eq(owner.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStatusOrderByStartDesc(eq(owner.getId()), eq(BookingStatus.WAITING), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStatusOrderByStartDesc(eq(owner.getId()), eq(BookingStatus.REJECTED), any(Pageable.class));
+        verify(userCache, times(2)).exists(eq(owner.getId()));
+        verify(bookingRepository, times(1)).findAllByState(eq(BookingRole.OWNER), eq(RequestBookingStatus.ALL), eq(owner.getId()), any(LocalDateTime.class), isNull(), eq(PageRequest.of(0, 10)));
+        verify(bookingRepository, times(1)).findAllByState(eq(BookingRole.OWNER), eq(RequestBookingStatus.REJECTED), eq(owner.getId()), any(LocalDateTime.class), isNull(), eq(PageRequest.of(0, 10)));
 
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
     }
 
     @Test
@@ -206,12 +250,12 @@ public class BookingServiceTest {
 
         Booking booking = getBooking(100, booker, item);
 
-        BookingRequestDto requestDto = BookingRequestDto.builder()
-                .itemId(item.getId())
-                .build();
+        BookingRequestDto requestDto = getBookingRequestDto(item);
 
-        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
+        when(userCache.exists(eq(booker.getId()))).thenReturn(true);
+        when(userRepository.getReferenceById(eq(booker.getId()))).thenReturn(booker);
+        when(itemRepository.findByIdForUpdate(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
+        when(bookingIntervalIndex.overlaps(eq(item.getId()), eq(requestDto.getStart()), eq(requestDto.getEnd()))).thenReturn(false);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         BookingResponseDto responseDto = bookingService.create(requestDto, booker.getId());
@@ -222,10 +266,172 @@ public class BookingServiceTest {
         assertThat(responseDto.getItem().getId(), equalTo(item.getId()));
         assertThat(responseDto.getItem().getName(), equalTo(item.getName()));
 
-        verify(userRepository, times(1)).findById(eq(booker.getId()));
-        verify(itemRepository, times(1)).findById(eq(item.getId()));
+        verify(userCache, times(1)).exists(eq(booker.getId()));
+        verify(userRepository, times(1)).getReferenceById(eq(booker.getId()));
+        verify(itemRepository, times(1)).findByIdForUpdate(eq(item.getId()));
+        verify(bookingIntervalIndex, times(1)).overlaps(eq(item.getId()), eq(requestDto.getStart()), eq(requestDto.getEnd()));
         verify(bookingRepository, times(1)).save(any(Booking.class));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verify(bookingIntervalIndex, times(1)).add(eq(item.getId()), any());
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, bookingIntervalIndex);
+    }
+
+    @Test
+    void createAllTest() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+        Item bookedItem = getItem(11, owner);
+        Item ownItem = getItem(12, booker);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<BookingRequestDto> requestDtos = Arrays.asList(
+                getBookingRequestDto(item.getId(), start, start.plusDays(2)),
+                getBookingRequestDto(item.getId(), start.plusDays(1), start.plusDays(3)),
+                getBookingRequestDto(item.getId(), start.plusDays(2), start.plusDays(3)),
+                getBookingRequestDto(bookedItem.getId(), start, start.plusDays(1)),
+                getBookingRequestDto(ownItem.getId(), start, start.plusDays(1)),
+                getBookingRequestDto(13, start, start.plusDays(1)),
+                getBookingRequestDto(item.getId(), start.plusDays(5), start.plusDays(4)),
+                null
+        );
+
+        runInTransaction();
+        when(userCache.exists(eq(booker.getId()))).thenReturn(true);
+        when(userRepository.getReferenceById(eq(booker.getId()))).thenReturn(booker);
+        when(itemRepository.findAllByIdInForUpdate(eq(Set.of(10, 11, 12, 13)))).thenReturn(List.of(item, bookedItem, ownItem));
+        when(bookingRepository.findAllIntervalsByItemIdIn(eq(Set.of(10, 11, 12)), eq(BookingStatus.ACTIVE),
+                eq(start), eq(start.plusDays(4))))
+                .thenReturn(List.of(new BookingItemInterval(bookedItem.getId(), start.minusDays(1), start.plusHours(1))));
+        doAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            for (int i = 0; i < bookings.size(); i++) {
+                bookings.get(i).setId(100 + i);
+            }
+            return bookings;
+        }).when(bookingRepository).saveAllAndFlush(anyList());
+
+        List<BookingBatchResultDto> results = bookingService.createAll(requestDtos, booker.getId());
+
+        assertThat(results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()),
+                equalTo(List.of(200, 409, 200, 409, 404, 404, 400, 400)));
+        assertThat(results.get(0).getBooking().getId(), equalTo(100));
+        assertThat(results.get(0).getBooking().getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(results.get(2).getBooking().getId(), equalTo(101));
+        assertThat(results.get(1).getBooking(), equalTo(null));
+        assertThat(results.get(6).getError(), equalTo("Время окончания должно быть после старта"));
+        assertThat(results.get(7).getError(), equalTo("Бронирование не должно быть пустым"));
+
+        verify(bookingRepository, times(1)).saveAllAndFlush(anyList());
+        verify(bookingIntervalIndex, times(2)).add(eq(item.getId()), any());
+    }
+
+    @Test
+    void createAllTest_ConstraintViolation() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+        Item bookedItem = getItem(11, owner);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<BookingRequestDto> requestDtos = List.of(
+                getBookingRequestDto(item.getId(), start, start.plusDays(1)),
+                getBookingRequestDto(bookedItem.getId(), start, start.plusDays(1))
+        );
+
+        runInTransaction();
+        when(userCache.exists(eq(booker.getId()))).thenReturn(true);
+        when(userRepository.getReferenceById(eq(booker.getId()))).thenReturn(booker);
+        when(itemRepository.findAllByIdInForUpdate(any())).thenAnswer(invocation -> {
+            Collection<Integer> itemIds = invocation.getArgument(0);
+            return Stream.of(item, bookedItem)
+                    .filter(stored -> itemIds.contains(stored.getId()))
+                    .collect(Collectors.toList());
+        });
+        when(bookingRepository.findAllIntervalsByItemIdIn(any(), any(), any(), any())).thenReturn(List.of());
+        doAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            if (bookings.stream().anyMatch(booking -> booking.getItem().getId() == bookedItem.getId())) {
+                throw new DataIntegrityViolationException("bookings_item_id_period_excl");
+            }
+            bookings.forEach(booking -> booking.setId(100));
+            return bookings;
+        }).when(bookingRepository).saveAllAndFlush(anyList());
+
+        List<BookingBatchResultDto> results = bookingService.createAll(requestDtos, booker.getId());
+
+        assertThat(results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()),
+                equalTo(List.of(200, 409)));
+        assertThat(results.get(0).getBooking().getId(), equalTo(100));
+        assertThat(results.get(1).getError(), equalTo("Вещь уже забронирована на выбранные даты"));
+
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(bookingRepository, times(3)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void createAllTest_UserNotFound() {
+        runInTransaction();
+        when(userCache.exists(eq(2))).thenReturn(false);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
+            bookingService.createAll(List.of(getBookingRequestDto(getItem(10, getUser(1)))), 2);
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.NOT_FOUND));
+        verifyNoInteractions(itemRepository, bookingRepository, bookingIntervalIndex);
+    }
+
+    @Test
+    void exportTest() {
+        LocalDateTime start = LocalDateTime.now();
+        BookingExportDto booking1 = new BookingExportDto(511, start.plusDays(1), start.plusDays(2), BookingStatus.WAITING, 2, 10, "Item");
+        BookingExportDto booking2 = new BookingExportDto(3, start, start.plusDays(1), BookingStatus.APPROVED, 3, 20, "Other item");
+
+        List<BookingExportDto> firstChunk = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            firstChunk.add(new BookingExportDto(i, start, start.plusDays(1), BookingStatus.APPROVED, 3, 10, "Item"));
+        }
+
+        when(bookingRepository.findExportChunkByOwnerId(eq(1), eq(0), eq(0), eq(PageRequest.of(0, 500)))).thenReturn(firstChunk);
+        when(bookingRepository.findExportChunkByOwnerId(eq(1), eq(10), eq(500), eq(PageRequest.of(0, 500)))).thenReturn(List.of(booking1, booking2));
+
+        List<BookingExportDto> exported = new ArrayList<>();
+        bookingService.export(BookingRole.OWNER, 1, exported::add);
+
+        assertThat(exported.size(), equalTo(502));
+        assertThat(exported.subList(500, 502), equalTo(List.of(booking1, booking2)));
+        verify(bookingRepository, times(1)).findExportChunkByOwnerId(eq(1), eq(0), eq(0), eq(PageRequest.of(0, 500)));
+        verify(bookingRepository, times(1)).findExportChunkByOwnerId(eq(1), eq(10), eq(500), eq(PageRequest.of(0, 500)));
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void createTest_OverlappingIndexedBooking() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+
+        BookingRequestDto requestDto = getBookingRequestDto(item);
+
+        when(userCache.exists(eq(booker.getId()))).thenReturn(true);
+        when(userRepository.getReferenceById(eq(booker.getId()))).thenReturn(booker);
+        when(itemRepository.findByIdForUpdate(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
+        when(bookingIntervalIndex.overlaps(eq(item.getId()), eq(requestDto.getStart()), eq(requestDto.getEnd()))).thenReturn(true);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
+            bookingService.create(requestDto, booker.getId());
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.CONFLICT));
+
+        verify(bookingIntervalIndex, times(1)).overlaps(eq(item.getId()), eq(requestDto.getStart()), eq(requestDto.getEnd()));
+        verify(bookingRepository, never()).existsByItemIdAndStatusInAndEndAfterAndStartBefore(anyInt(), any(), any(), any());
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -236,12 +442,11 @@ public class BookingServiceTest {
         Item item = getItem(10, owner);
         item.setAvailable(false);
 
-        BookingRequestDto requestDto = BookingRequestDto.builder()
-                .itemId(item.getId())
-                .build();
+        BookingRequestDto requestDto = getBookingRequestDto(item);
 
-        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
+        when(userCache.exists(eq(booker.getId()))).thenReturn(true);
+        when(userRepository.getReferenceById(eq(booker.getId()))).thenReturn(booker);
+        when(itemRepository.findByIdForUpdate(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
 
         ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
             bookingService.create(requestDto, booker.getId());
@@ -249,9 +454,10 @@ public class BookingServiceTest {
 
         assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
 
-        verify(userRepository, times(1)).findById(eq(booker.getId()));
-        verify(itemRepository, times(1)).findById(eq(item.getId()));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verify(userCache, times(1)).exists(eq(booker.getId()));
+        verify(userRepository, times(1)).getReferenceById(eq(booker.getId()));
+        verify(itemRepository, times(1)).findByIdForUpdate(eq(item.getId()));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
     }
 
     @Test
@@ -260,12 +466,11 @@ public class BookingServiceTest {
 
         Item item = getItem(10, owner);
 
-        BookingRequestDto requestDto = BookingRequestDto.builder()
-                .itemId(item.getId())
-                .build();
+        BookingRequestDto requestDto = getBookingRequestDto(item);
 
-        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.ofNullable(owner));
-        when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
+        when(userCache.exists(eq(owner.getId()))).thenReturn(true);
+        when(userRepository.getReferenceById(eq(owner.getId()))).thenReturn(owner);
+        when(itemRepository.findByIdForUpdate(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
 
         ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
             bookingService.create(requestDto, owner.getId());
@@ -273,9 +478,10 @@ public class BookingServiceTest {
 
         assertThat(e.getStatus(), equalTo(HttpStatus.NOT_FOUND));
 
-        verify(userRepository, times(1)).findById(eq(owner.getId()));
-        verify(itemRepository, times(1)).findById(eq(item.getId()));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verify(userCache, times(1)).exists(eq(owner.getId()));
+        verify(userRepository, times(1)).getReferenceById(eq(owner.getId()));
+        verify(itemRepository, times(1)).findByIdForUpdate(eq(item.getId()));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
     }
 
     @Test
@@ -289,7 +495,7 @@ public class BookingServiceTest {
         booking.setStatus(BookingStatus.WAITING);
 
         when(bookingRepository.findById(eq(booking.getId()))).thenReturn(Optional.ofNullable(booking));
-        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.ofNullable(owner));
+        when(userCache.exists(eq(owner.getId()))).thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         BookingResponseDto responseDto = bookingService.approve(booking.getId(), true, owner.getId());
@@ -301,9 +507,31 @@ public class BookingServiceTest {
         assertThat(responseDto.getItem().getName(), equalTo(item.getName()));
 
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
-        verify(userRepository, times(1)).findById(eq(owner.getId()));
+        verify(userCache, times(1)).exists(eq(owner.getId()));
         verify(bookingRepository, times(1)).save(any(Booking.class));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
+    }
+
+    @Test
+    void approveTest_Rejected() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+
+        Booking booking = getBooking(100, booker, item);
+        booking.setStatus(BookingStatus.WAITING);
+
+        when(bookingRepository.findById(eq(booking.getId()))).thenReturn(Optional.ofNullable(booking));
+        when(userCache.exists(eq(owner.getId()))).thenReturn(true);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        BookingResponseDto responseDto = bookingService.approve(booking.getId(), false, owner.getId());
+
+        assertThat(responseDto.getStatus(), equalTo(BookingStatus.REJECTED));
+
+        verify(bookingIntervalIndex, times(1)).remove(eq(item.getId()), any());
+        verifyNoMoreInteractions(bookingIntervalIndex);
     }
 
     @Test
@@ -317,7 +545,7 @@ public class BookingServiceTest {
         booking.setStatus(BookingStatus.WAITING);
 
         when(bookingRepository.findById(eq(booking.getId()))).thenReturn(Optional.ofNullable(booking));
-        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.ofNullable(booker));
+        when(userCache.exists(eq(booker.getId()))).thenReturn(true);
 
         ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
             bookingService.approve(booking.getId(), true, booker.getId());
@@ -326,8 +554,8 @@ public class BookingServiceTest {
         assertThat(e.getStatus(), equalTo(HttpStatus.NOT_FOUND));
 
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
-        verify(userRepository, times(1)).findById(eq(booker.getId()));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verify(userCache, times(1)).exists(eq(booker.getId()));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
     }
 
     @Test
@@ -341,7 +569,7 @@ public class BookingServiceTest {
         booking.setStatus(BookingStatus.APPROVED);
 
         when(bookingRepository.findById(eq(booking.getId()))).thenReturn(Optional.ofNullable(booking));
-        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.ofNullable(owner));
+        when(userCache.exists(eq(owner.getId()))).thenReturn(true);
 
         ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
             bookingService.approve(booking.getId(), true, owner.getId());
@@ -350,8 +578,13 @@ public class BookingServiceTest {
         assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
 
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
-        verify(userRepository, times(1)).findById(eq(owner.getId()));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verify(userCache, times(1)).exists(eq(owner.getId()));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository);
+    }
+
+    private void runInTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     private User getUser(int id) {
@@ -380,4 +613,20 @@ public class BookingServiceTest {
                 .item(item)
                 .build();
     }
+
+    private BookingRequestDto getBookingRequestDto(int itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingRequestDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build();
+    }
+
+    private BookingRequestDto getBookingRequestDto(Item item) {
+        return BookingRequestDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+    }
 }
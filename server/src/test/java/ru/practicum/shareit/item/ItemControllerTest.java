@@ -5,23 +5,34 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(ItemImporter.class)
 public class ItemControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -54,6 +65,45 @@ public class ItemControllerTest {
         verifyNoMoreInteractions(itemService);
     }
 
+    @Test
+    void importItemsTest() throws Exception {
+        int userId = 1;
+
+        String content = objectMapper.writeValueAsString(getRequestDto()) + "\n" +
+                "{not json\n" +
+                "\n" +
+                objectMapper.writeValueAsString(getRequestDto()) + "\n";
+
+        when(itemService.createAll(anyList(), eq(userId))).thenReturn(List.of(
+                ItemImportResultDto.builder().status(200).item(getItemResponseDto(10)).build(),
+                ItemImportResultDto.builder().status(404).error("Запрос не найден").build()
+        ));
+
+        MvcResult mvcResult = mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(content)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines.length, equalTo(3));
+        assertThat(objectMapper.readValue(lines[0], ItemImportResultDto.class).getLine(), equalTo(1));
+        assertThat(objectMapper.readValue(lines[0], ItemImportResultDto.class).getItem().getId(), equalTo(10));
+        assertThat(objectMapper.readValue(lines[1], ItemImportResultDto.class).getLine(), equalTo(2));
+        assertThat(objectMapper.readValue(lines[1], ItemImportResultDto.class).getStatus(), equalTo(400));
+        assertThat(objectMapper.readValue(lines[2], ItemImportResultDto.class).getLine(), equalTo(4));
+        assertThat(objectMapper.readValue(lines[2], ItemImportResultDto.class).getError(), equalTo("Запрос не найден"));
+
+        verify(itemService, times(1)).createAll(argThat(itemDtos -> itemDtos.size() == 2), eq(userId));
+        verifyNoMoreInteractions(itemService);
+    }
+
     @Test
     void createCommentTest() throws Exception {
         int userId = 1;
@@ -88,17 +138,91 @@ public class ItemControllerTest {
 
         ItemDto responseDto = getItemResponseDto(10);
 
+        when(itemService.getEntityTag(eq(userId), eq(responseDto.getId()))).thenReturn("1-0-0");
         when(itemService.getById(eq(userId), eq(responseDto.getId()))).thenReturn(responseDto);
 
         mockMvc.perform(get("/items/" + responseDto.getId())
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-0-0\""))
                 .andExpect(jsonPath("$.id").value(responseDto.getId()));
 
+        verify(itemService, times(1)).getEntityTag(eq(userId), eq(responseDto.getId()));
         verify(itemService, times(1)).getById(eq(userId), eq(responseDto.getId()));
         verifyNoMoreInteractions(itemService);
     }
 
+    @Test
+    void getByIdNotModifiedTest() throws Exception {
+        int userId = 1;
+        int itemId = 10;
+
+        when(itemService.getEntityTag(eq(userId), eq(itemId))).thenReturn("1-0-0");
+
+        mockMvc.perform(get("/items/" + itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("If-None-Match", "\"1-0-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-0-0\""));
+
+        verify(itemService, times(1)).getEntityTag(eq(userId), eq(itemId));
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    void getAvailabilityTest() throws Exception {
+        int itemId = 10;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        when(itemService.getAvailabilityEntityTag(eq(itemId), eq(from), eq(to))).thenReturn("1-100");
+        doAnswer(invocation -> {
+            Consumer<ItemAvailabilityDto> consumer = invocation.getArgument(3);
+            consumer.accept(new ItemAvailabilityDto(from, from.plusDays(1)));
+            consumer.accept(new ItemAvailabilityDto(from.plusDays(2), to));
+            return null;
+        }).when(itemService).getAvailability(eq(itemId), eq(from), eq(to), any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/items/" + itemId + "/availability")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("ETag", "\"1-100\""))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].start").value("2030-01-01T00:00:00"))
+                .andExpect(jsonPath("$[0].end").value("2030-01-02T00:00:00"))
+                .andExpect(jsonPath("$[1].start").value("2030-01-03T00:00:00"))
+                .andExpect(jsonPath("$[1].end").value("2030-01-11T00:00:00"));
+
+        verify(itemService, times(1)).getAvailabilityEntityTag(eq(itemId), eq(from), eq(to));
+        verify(itemService, times(1)).getAvailability(eq(itemId), eq(from), eq(to), any());
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    void getAvailabilityNotModifiedTest() throws Exception {
+        int itemId = 10;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        when(itemService.getAvailabilityEntityTag(eq(itemId), eq(from), eq(to))).thenReturn("1-100");
+
+        mockMvc.perform(get("/items/" + itemId + "/availability")
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-None-Match", "\"1-100\"")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isNotModified());
+
+        verify(itemService, times(1)).getAvailabilityEntityTag(eq(itemId), eq(from), eq(to));
+        verifyNoMoreInteractions(itemService);
+    }
+
     @Test
     void getAllByOwnerId() throws Exception {
         int userId = 1;
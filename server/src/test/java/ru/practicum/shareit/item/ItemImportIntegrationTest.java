@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.item.import.chunk-size=100")
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext
+public class ItemImportIntegrationTest {
+    private static final int ITEM_COUNT = 1050;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = User.builder()
+                    .name("owner")
+                    .email("owner@user.com")
+                    .build();
+            entityManager.persist(owner);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Item i WHERE i.owner.id = :ownerId")
+                    .setParameter("ownerId", owner.getId())
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM User u WHERE u.id = :ownerId")
+                    .setParameter("ownerId", owner.getId())
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    void importItemsTest() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            ItemDto itemDto = ItemDto.builder()
+                    .name("Item " + i)
+                    .description(i == 500 ? "" : "ItemDescr " + i)
+                    .available(true)
+                    .build();
+            content.append(objectMapper.writeValueAsString(itemDto)).append('\n');
+        }
+
+        MvcResult mvcResult = mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .content(content.toString())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines.length, equalTo(ITEM_COUNT));
+
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            ItemImportResultDto result = objectMapper.readValue(lines[i], ItemImportResultDto.class);
+            assertThat(result.getLine(), equalTo(i + 1));
+
+            if (i == 500) {
+                assertThat(result.getStatus(), equalTo(400));
+                assertThat(result.getError(), equalTo("Описание не должно быть пустым"));
+            } else {
+                assertThat(result.getStatus(), equalTo(200));
+                assertThat(result.getItem().getName(), equalTo("Item " + i));
+                ids.add(result.getItem().getId());
+            }
+        }
+        assertThat(ids.size(), equalTo(ITEM_COUNT - 1));
+
+        Long stored = transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT COUNT(i) FROM Item i WHERE i.owner.id = :ownerId", Long.class)
+                .setParameter("ownerId", owner.getId())
+                .getSingleResult());
+        assertThat(stored, equalTo((long) ITEM_COUNT - 1));
+    }
+
+    @Test
+    void importItemsUnknownUserTest() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", owner.getId() + 1000)
+                        .content("{\"name\":\"Item\",\"description\":\"ItemDescr\",\"available\":true}\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(objectMapper.readValue(content.trim(), ItemImportResultDto.class).getStatus(), equalTo(404));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    void rebuildTest() {
+        ItemSearchIndex itemSearchIndex = new ItemSearchIndex(itemRepository, true);
+
+        when(itemRepository.findMaxId()).thenReturn(10_001);
+        when(itemRepository.findAllIndexedItemsByIdBetween(eq(0), eq(9_999))).thenReturn(List.of(
+                new ItemSearchIndex.IndexedItem(2, "Фиолетовый слон", "Обычный фиолетовый слон", true),
+                new ItemSearchIndex.IndexedItem(1, "Красный лягух", "Легендарный красный лягух", true),
+                new ItemSearchIndex.IndexedItem(3, "Фиолетовый пчел", "Эпический фиолетовый пчел", false)
+        ));
+        when(itemRepository.findAllIndexedItemsByIdBetween(eq(10_000), eq(19_999))).thenReturn(List.of(
+                new ItemSearchIndex.IndexedItem(10_001, "Зеленый лягух", "It's wednesday my dudes", true)
+        ));
+
+        itemSearchIndex.rebuild();
+
+        assertThat(itemSearchIndex.isReady(), equalTo(true));
+        assertThat(itemSearchIndex.search("ТиГр", 0, 10), empty());
+        assertThat(itemSearchIndex.search("ФиОлЕтОвЫй", 0, 10), equalTo(List.of(2)));
+        assertThat(itemSearchIndex.search("ЛяГуХ", 0, 10), equalTo(List.of(1, 10_001)));
+        assertThat(itemSearchIndex.search("лягух", 1, 10), equalTo(List.of(10_001)));
+        assertThat(itemSearchIndex.search("ЛЯГ", 0, 10), equalTo(List.of(1, 10_001)));
+        assertThat(itemSearchIndex.search("олетов", 0, 10), equalTo(List.of(2)));
+        assertThat(itemSearchIndex.search("nesday", 0, 10), equalTo(List.of(10_001)));
+        assertThat(itemSearchIndex.search("ый ЛЯГУХ", 0, 10), equalTo(List.of(1, 10_001)));
+        assertThat(itemSearchIndex.search("красный ЛЯГУХ", 0, 10), equalTo(List.of(1)));
+        assertThat(itemSearchIndex.search("my dudes", 0, 10), equalTo(List.of(10_001)));
+        assertThat(itemSearchIndex.search("лягух красный", 0, 10), empty());
+        assertThat(itemSearchIndex.search("слон обычный", 0, 10), empty());
+        assertThat(itemSearchIndex.supports("ля"), equalTo(false));
+        assertThat(itemSearchIndex.supports("сло_"), equalTo(false));
+        assertThat(itemSearchIndex.supports("100%"), equalTo(false));
+    }
+
+    @Test
+    void incrementalUpdateTest() {
+        ItemSearchIndex itemSearchIndex = new ItemSearchIndex(itemRepository, true);
+
+        when(itemRepository.findMaxId()).thenReturn(null);
+
+        itemSearchIndex.rebuild();
+
+        itemSearchIndex.add(1, "Дрель", "Аккумуляторная дрель", true);
+        itemSearchIndex.add(2, "Отвертка", "Аккумуляторная отвертка", true);
+
+        assertThat(itemSearchIndex.search("аккумулятор", 0, 10), equalTo(List.of(1, 2)));
+
+        itemSearchIndex.update(1, "Дрель", "Сетевая дрель", true);
+
+        assertThat(itemSearchIndex.search("аккумулятор", 0, 10), equalTo(List.of(2)));
+        assertThat(itemSearchIndex.search("сетевая", 0, 10), equalTo(List.of(1)));
+
+        itemSearchIndex.update(2, "Отвертка", "Аккумуляторная отвертка", false);
+
+        assertThat(itemSearchIndex.search("аккумулятор", 0, 10), empty());
+
+        itemSearchIndex.update(2, "Отвертка", "Аккумуляторная отвертка", true);
+
+        assertThat(itemSearchIndex.search("аккумулятор", 0, 10), equalTo(List.of(2)));
+
+        itemSearchIndex.remove(1);
+
+        assertThat(itemSearchIndex.search("дрель", 0, 10), empty());
+        assertThat(itemSearchIndex.search("отвертка", 0, 10), equalTo(List.of(2)));
+
+        itemSearchIndex.remove(2);
+
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(itemSearchIndex, "postingsByGram"), anEmptyMap());
+    }
+
+    @Test
+    void afterCommitTest() {
+        ItemSearchIndex itemSearchIndex = new ItemSearchIndex(itemRepository, true);
+
+        when(itemRepository.findMaxId()).thenReturn(null);
+
+        itemSearchIndex.rebuild();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.add(1, "Дрель", "Аккумуляторная дрель", true);
+
+            assertThat(itemSearchIndex.search("дрель", 0, 10), empty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(itemSearchIndex.search("дрель", 0, 10), equalTo(List.of(1)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.remove(1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(itemSearchIndex.search("дрель", 0, 10), equalTo(List.of(1)));
+    }
+
+    @Test
+    void disabledTest() {
+        ItemSearchIndex itemSearchIndex = new ItemSearchIndex(itemRepository, false);
+
+        itemSearchIndex.rebuild();
+        itemSearchIndex.add(1, "Дрель", "Аккумуляторная дрель", true);
+
+        assertThat(itemSearchIndex.isReady(), equalTo(false));
+        assertThat(itemSearchIndex.search("дрель", 0, 10), empty());
+
+        verifyNoInteractions(itemRepository);
+    }
+}
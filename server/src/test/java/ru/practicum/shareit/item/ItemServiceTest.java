@@ -8,32 +8,47 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityVersion;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -48,6 +63,9 @@ public class ItemServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @Mock
     private BookingRepository bookingRepository;
 
@@ -57,6 +75,9 @@ public class ItemServiceTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
     @Test
     void createTest() {
         User user = getUser(1);
@@ -71,7 +92,8 @@ public class ItemServiceTest {
                 .requestId(itemRequest.getId())
                 .build();
 
-        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.ofNullable(user));
+        when(userCache.exists(eq(user.getId()))).thenReturn(true);
+        when(userRepository.getReferenceById(eq(user.getId()))).thenReturn(user);
         when(itemRequestRepository.findById(itemRequest.getId())).thenReturn(Optional.ofNullable(itemRequest));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
@@ -83,10 +105,51 @@ public class ItemServiceTest {
         assertThat(resultDto.getAvailable(), equalTo(item.getAvailable()));
         assertThat(resultDto.getRequestId(), equalTo(itemRequest.getId()));
 
-        verify(userRepository, times(1)).findById(eq(user.getId()));
+        verify(userCache, times(1)).exists(eq(user.getId()));
+        verify(userRepository, times(1)).getReferenceById(eq(user.getId()));
         verify(itemRequestRepository, times(1)).findById(eq(itemRequest.getId()));
         verify(itemRepository, times(1)).save(any(Item.class));
-        verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository);
+        verifyNoMoreInteractions(itemRequestRepository, userRepository, userCache, itemRepository);
+    }
+
+    @Test
+    void createAllTest() {
+        User user = getUser(1);
+
+        ItemRequest itemRequest = getItemRequest(10);
+
+        List<ItemDto> itemDtos = List.of(
+                getItemDto("Item 1", null),
+                getItemDto(" ", null),
+                getItemDto("Item 3", itemRequest.getId()),
+                getItemDto("Item 4", 11)
+        );
+
+        when(userCache.exists(eq(user.getId()))).thenReturn(true);
+        when(userRepository.getReferenceById(eq(user.getId()))).thenReturn(user);
+        when(itemRequestRepository.findAllById(eq(Set.of(10, 11)))).thenReturn(List.of(itemRequest));
+        when(itemRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            for (int i = 0; i < items.size(); i++) {
+                items.get(i).setId(100 + i);
+            }
+            return items;
+        });
+
+        List<ItemImportResultDto> results = itemService.createAll(itemDtos, user.getId());
+
+        assertThat(results.stream().map(ItemImportResultDto::getStatus).collect(Collectors.toList()),
+                equalTo(List.of(200, 400, 200, 404)));
+        assertThat(results.get(0).getItem().getId(), equalTo(100));
+        assertThat(results.get(0).getItem().getName(), equalTo("Item 1"));
+        assertThat(results.get(1).getError(), equalTo("Имя не должно быть пустым"));
+        assertThat(results.get(2).getItem().getId(), equalTo(101));
+        assertThat(results.get(2).getItem().getRequestId(), equalTo(itemRequest.getId()));
+        assertThat(results.get(3).getError(), equalTo("Запрос не найден"));
+
+        verify(itemRepository, times(1)).saveAllAndFlush(anyList());
+        verify(itemSearchIndex, times(2)).add(anyInt(), anyString(), anyString(), anyBoolean());
+        verifyNoMoreInteractions(itemRepository);
     }
 
     @Test
@@ -115,7 +178,7 @@ public class ItemServiceTest {
         verify(itemRepository, times(1)).findById(eq(item.getId()));
         verify(bookingRepository, times(1)).findAllApprovedByItemIdAndUserId(eq(item.getId()), eq(user.getId()), any(LocalDateTime.class));
         verify(commentRepository, times(1)).save(any(Comment.class));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
     }
 
     @Test
@@ -142,7 +205,7 @@ public class ItemServiceTest {
         verify(userRepository, times(1)).findById(eq(user.getId()));
         verify(itemRepository, times(1)).findById(eq(item.getId()));
         verify(bookingRepository, times(1)).findAllApprovedByItemIdAndUserId(eq(item.getId()), eq(user.getId()), any(LocalDateTime.class));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
     }
 
     @Test
@@ -161,11 +224,6 @@ public class ItemServiceTest {
         nextBooking.setStart(LocalDateTime.now().plusDays(1));
         nextBooking.setEnd(LocalDateTime.now().plusDays(2));
 
-        List<Booking> bookingList = Arrays.asList(
-                lastBooking,
-                nextBooking
-        );
-
         Comment comment1 = getComment(1000);
         comment1.setAuthor(booker);
 
@@ -178,7 +236,10 @@ public class ItemServiceTest {
         );
 
         when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
-        when(bookingRepository.findAllByItemId(eq(item.getId()))).thenReturn(bookingList);
+        when(bookingRepository.findNextByItemId(eq(item.getId()), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(new ItemDto.ItemBooking(nextBooking.getId(), booker.getId())));
+        when(bookingRepository.findLastByItemId(eq(item.getId()), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(new ItemDto.ItemBooking(lastBooking.getId(), booker.getId())));
         when(commentRepository.findAllByItemId(eq(item.getId()))).thenReturn(commentList);
 
         ItemDto resultDto = itemService.getById(owner.getId(), item.getId());
@@ -202,9 +263,10 @@ public class ItemServiceTest {
         assertThat(resultDto.getComments().get(1).getAuthorName(), equalTo(booker.getName()));
 
         verify(itemRepository, times(1)).findById(eq(item.getId()));
-        verify(bookingRepository, times(1)).findAllByItemId(eq(item.getId()));
+        verify(bookingRepository, times(1)).findNextByItemId(eq(item.getId()), any(LocalDateTime.class), any(Pageable.class));
+        verify(bookingRepository, times(1)).findLastByItemId(eq(item.getId()), any(LocalDateTime.class), any(Pageable.class));
         verify(commentRepository, times(1)).findAllByItemId(eq(item.getId()));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
     }
 
     @Test
@@ -263,7 +325,84 @@ public class ItemServiceTest {
 
         verify(itemRepository, times(1)).findById(eq(item.getId()));
         verify(commentRepository, times(1)).findAllByItemId(eq(item.getId()));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
+    }
+
+    @Test
+    void getAvailabilityTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        when(bookingRepository.streamIntervalsByItemIdAndStatusIn(eq(100), eq(BookingStatus.ACTIVE), eq(from), eq(to)))
+                .thenReturn(Stream.of(
+                        new BookingInterval(1, from.minusDays(1), from.plusDays(1)),
+                        new BookingInterval(2, from.plusDays(3), from.plusDays(5)),
+                        new BookingInterval(3, from.plusDays(4), from.plusDays(6)),
+                        new BookingInterval(4, from.plusDays(6), from.plusDays(7))
+                ));
+
+        List<ItemAvailabilityDto> windows = new ArrayList<>();
+        itemService.getAvailability(100, from, to, windows::add);
+
+        assertThat(windows, equalTo(List.of(
+                new ItemAvailabilityDto(from.plusDays(1), from.plusDays(3)),
+                new ItemAvailabilityDto(from.plusDays(7), to)
+        )));
+
+        verify(bookingRepository, times(1)).streamIntervalsByItemIdAndStatusIn(eq(100), eq(BookingStatus.ACTIVE), eq(from), eq(to));
+        verifyNoMoreInteractions(itemRepository, bookingRepository);
+    }
+
+    @Test
+    void getAvailabilityTest_NoBookings() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        when(bookingRepository.streamIntervalsByItemIdAndStatusIn(eq(100), eq(BookingStatus.ACTIVE), eq(from), eq(to)))
+                .thenReturn(Stream.empty());
+
+        List<ItemAvailabilityDto> windows = new ArrayList<>();
+        itemService.getAvailability(100, from, to, windows::add);
+
+        assertThat(windows, equalTo(List.of(new ItemAvailabilityDto(from, to))));
+    }
+
+    @Test
+    void getAvailabilityEntityTagTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        when(itemRepository.findAvailabilityVersionById(eq(100), eq(BookingStatus.ACTIVE), eq(from), eq(to)))
+                .thenReturn(Optional.of(new ItemAvailabilityVersion(2L, 7L)));
+
+        assertThat(itemService.getAvailabilityEntityTag(100, from, to), equalTo("2-7"));
+    }
+
+    @Test
+    void getAvailabilityEntityTagTest_NotFound() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        when(itemRepository.findAvailabilityVersionById(eq(100), eq(BookingStatus.ACTIVE), eq(from), eq(to)))
+                .thenReturn(Optional.empty());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
+            itemService.getAvailabilityEntityTag(100, from, to);
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    void getAvailabilityEntityTagTest_InvalidInterval() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
+            itemService.getAvailabilityEntityTag(100, from, from);
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
@@ -290,16 +429,13 @@ public class ItemServiceTest {
         item1nextBooking.setStart(LocalDateTime.now().plusDays(1));
         item1nextBooking.setEnd(LocalDateTime.now().plusDays(2));
 
-        List<Booking> item1bookingList = Arrays.asList(
-                item1lastBooking,
-                item1nextBooking
-        );
-
         Comment comment1 = getComment(1000);
         comment1.setAuthor(booker);
+        comment1.setItem(item1);
 
         Comment comment2 = getComment(1001);
         comment2.setAuthor(booker);
+        comment2.setItem(item1);
 
         List<Comment> item1commentList = Arrays.asList(
                 comment1,
@@ -307,10 +443,11 @@ public class ItemServiceTest {
         );
 
         when(itemRepository.findAllByOwnerId(eq(owner.getId()), any(Pageable.class))).thenReturn(itemList);
-        when(bookingRepository.findAllByItemId(eq(item1.getId()))).thenReturn(item1bookingList);
-        when(bookingRepository.findAllByItemId(eq(item2.getId()))).thenReturn(new ArrayList<>());
-        when(commentRepository.findAllByItemId(eq(item1.getId()))).thenReturn(item1commentList);
-        when(commentRepository.findAllByItemId(eq(item2.getId()))).thenReturn(new ArrayList<>());
+        when(bookingRepository.findAllNextByItemIdIn(eq(List.of(item1.getId(), item2.getId())), any(LocalDateTime.class)))
+                .thenReturn(List.of(item1nextBooking));
+        when(bookingRepository.findAllLastByItemIdIn(eq(List.of(item1.getId(), item2.getId())), any(LocalDateTime.class)))
+                .thenReturn(List.of(item1lastBooking));
+        when(commentRepository.findAllByItemIdIn(eq(List.of(item1.getId(), item2.getId())))).thenReturn(item1commentList);
 
         List<ItemDto> resultDtoList = itemService.getAllByOwnerId(owner.getId(), 0, 10);
 
@@ -344,11 +481,22 @@ public class ItemServiceTest {
         assertThat(resultDtoList.get(1).getComments().size(), equalTo(0));
 
         verify(itemRepository, times(1)).findAllByOwnerId(eq(owner.getId()), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemId(eq(item1.getId()));
-        verify(bookingRepository, times(1)).findAllByItemId(eq(item2.getId()));
-        verify(commentRepository, times(1)).findAllByItemId(eq(item1.getId()));
-        verify(commentRepository, times(1)).findAllByItemId(eq(item2.getId()));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verify(bookingRepository, times(1)).findAllNextByItemIdIn(eq(List.of(item1.getId(), item2.getId())), any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findAllLastByItemIdIn(eq(List.of(item1.getId(), item2.getId())), any(LocalDateTime.class));
+        verify(commentRepository, times(1)).findAllByItemIdIn(eq(List.of(item1.getId(), item2.getId())));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
+    }
+
+    @Test
+    void getAllByOwnerIdTest_NoItems() {
+        when(itemRepository.findAllByOwnerId(eq(1), any(Pageable.class))).thenReturn(new ArrayList<>());
+
+        List<ItemDto> resultDtoList = itemService.getAllByOwnerId(1, 0, 10);
+
+        assertThat(resultDtoList.size(), equalTo(0));
+
+        verify(itemRepository, times(1)).findAllByOwnerId(eq(1), any(Pageable.class));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
     }
 
     @Test
@@ -380,7 +528,69 @@ public class ItemServiceTest {
         assertThat(resultDtoList.get(1).getAvailable(), equalTo(item2.getAvailable()));
 
         verify(itemRepository, times(1)).findBySearchText(eq(searchText), any(Pageable.class));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
+    }
+
+    @Test
+    void getAllBySearchTextTest_Trigram() {
+        String searchText = "Item";
+
+        Item item = getItem(1);
+
+        ReflectionTestUtils.setField(itemService, "trigramSearch", true);
+        when(itemRepository.findBySearchTextTrigram(eq(searchText), any(Pageable.class))).thenReturn(List.of(item));
+
+        List<ItemDto> resultDtoList = itemService.getAllBySearchText(searchText, 0, 10);
+
+        assertThat(resultDtoList.size(), equalTo(1));
+        assertThat(resultDtoList.get(0).getId(), equalTo(item.getId()));
+
+        verify(itemRepository, times(1)).findBySearchTextTrigram(eq(searchText), any(Pageable.class));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
+    }
+
+    @Test
+    void getAllBySearchTextTest_Index() {
+        String searchText = "Item";
+
+        Item item1 = getItem(1);
+        Item item2 = getItem(2);
+        Item unavailableItem = getItem(3);
+        unavailableItem.setAvailable(false);
+
+        when(itemSearchIndex.isReady()).thenReturn(true);
+        when(itemSearchIndex.supports(eq(searchText))).thenReturn(true);
+        when(itemSearchIndex.search(eq(searchText), eq(20L), eq(10))).thenReturn(List.of(1, 2, 3));
+        when(itemRepository.findAllById(eq(List.of(1, 2, 3)))).thenReturn(List.of(item2, unavailableItem, item1));
+
+        List<ItemDto> resultDtoList = itemService.getAllBySearchText(searchText, 2, 10);
+
+        assertThat(resultDtoList.size(), equalTo(2));
+        assertThat(resultDtoList.get(0).getId(), equalTo(item1.getId()));
+        assertThat(resultDtoList.get(1).getId(), equalTo(item2.getId()));
+
+        verify(itemRepository, times(1)).findAllById(eq(List.of(1, 2, 3)));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
+    }
+
+    @Test
+    void getAllBySearchTextTest_IndexUnsupported() {
+        String searchText = "It";
+
+        Item item = getItem(1);
+
+        when(itemSearchIndex.isReady()).thenReturn(true);
+        when(itemSearchIndex.supports(eq(searchText))).thenReturn(false);
+        when(itemRepository.findBySearchText(eq(searchText), any(Pageable.class))).thenReturn(List.of(item));
+
+        List<ItemDto> resultDtoList = itemService.getAllBySearchText(searchText, 0, 10);
+
+        assertThat(resultDtoList.size(), equalTo(1));
+        assertThat(resultDtoList.get(0).getId(), equalTo(item.getId()));
+
+        verify(itemSearchIndex, never()).search(anyString(), anyLong(), anyInt());
+        verify(itemRepository, times(1)).findBySearchText(eq(searchText), any(Pageable.class));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
     }
 
     @Test
@@ -389,7 +599,7 @@ public class ItemServiceTest {
 
         assertThat(resultDtoList.size(), equalTo(0));
 
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
     }
 
     @Test
@@ -413,7 +623,9 @@ public class ItemServiceTest {
 
         verify(itemRepository, times(1)).findById(eq(item.getId()));
         verify(itemRepository, times(1)).save(any(Item.class));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verify(itemSearchIndex, times(1)).update(eq(item.getId()), eq(item.getName()), eq(item.getDescription()),
+                eq(item.getAvailable()));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
     }
 
     @Test
@@ -435,7 +647,7 @@ public class ItemServiceTest {
         assertThat(e.getStatus(), equalTo(HttpStatus.FORBIDDEN));
 
         verify(itemRepository, times(1)).findById(eq(item.getId()));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
     }
 
     @Test
@@ -458,7 +670,7 @@ public class ItemServiceTest {
 
         verify(itemRepository, times(1)).findById(eq(item.getId()));
         verify(itemRepository, times(1)).save(any(Item.class));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
     }
 
     @Test
@@ -466,7 +678,8 @@ public class ItemServiceTest {
         itemService.delete(1);
 
         verify(itemRepository, times(1)).deleteById(eq(1));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verify(itemSearchIndex, times(1)).remove(eq(1));
+        verifyNoMoreInteractions(itemRepository, userRepository, userCache, bookingRepository, commentRepository, itemRequestRepository);
 
     }
 
@@ -487,6 +700,15 @@ public class ItemServiceTest {
                 .build();
     }
 
+    private ItemDto getItemDto(String name, Integer requestId) {
+        return ItemDto.builder()
+                .name(name)
+                .description("ItemDescr")
+                .available(true)
+                .requestId(requestId)
+                .build();
+    }
+
     private Comment getComment(int id) {
         return Comment.builder()
                 .id(id)
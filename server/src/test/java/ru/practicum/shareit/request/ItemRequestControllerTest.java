@@ -21,6 +21,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -89,17 +90,36 @@ public class ItemRequestControllerTest {
 
         ItemRequestGetResponseDto responseDto = getResponseDto(10);
 
+        when(itemRequestService.getEntityTag(eq(userId), eq(responseDto.getId()))).thenReturn("0-0-0");
         when(itemRequestService.getById(eq(userId), eq(responseDto.getId()))).thenReturn(responseDto);
 
         mockMvc.perform(get("/requests/" + responseDto.getId())
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0-0-0\""))
                 .andExpect(jsonPath("$.id").value(responseDto.getId()));
 
+        verify(itemRequestService, times(1)).getEntityTag(eq(userId), eq(responseDto.getId()));
         verify(itemRequestService, times(1)).getById(eq(userId), eq(responseDto.getId()));
         verifyNoMoreInteractions(itemRequestService);
     }
 
+    @Test
+    void getByIdNotModifiedTest() throws Exception {
+        int userId = 1;
+        int itemRequestId = 10;
+
+        when(itemRequestService.getEntityTag(eq(userId), eq(itemRequestId))).thenReturn("0-0-0");
+
+        mockMvc.perform(get("/requests/" + itemRequestId)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("If-None-Match", "\"0-0-0\""))
+                .andExpect(status().isNotModified());
+
+        verify(itemRequestService, times(1)).getEntityTag(eq(userId), eq(itemRequestId));
+        verifyNoMoreInteractions(itemRequestService);
+    }
+
     @Test
     void createTest() throws Exception {
         int userId = 1;
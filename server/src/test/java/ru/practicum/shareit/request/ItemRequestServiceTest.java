@@ -16,6 +16,7 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.util.Arrays;
 import java.util.List;
@@ -37,6 +38,9 @@ public class ItemRequestServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @Mock
     private ItemRepository itemRepository;
 
@@ -64,10 +68,10 @@ public class ItemRequestServiceTest {
                 itemRequest2
         );
 
-        when(userRepository.findById(requestor.getId())).thenReturn(Optional.ofNullable(requestor));
+        when(userCache.exists(eq(requestor.getId()))).thenReturn(true);
         when(itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(eq(requestor.getId()), any(Pageable.class))).thenReturn(itemRequestList);
-        when(itemRepository.findAllByItemRequestId(eq(itemRequest1.getId()))).thenReturn(Arrays.asList(item1));
-        when(itemRepository.findAllByItemRequestId(eq(itemRequest2.getId()))).thenReturn(Arrays.asList(item2));
+        when(itemRepository.findAllRequestedItemsByItemRequestIdIn(eq(List.of(itemRequest1.getId(), itemRequest2.getId()))))
+                .thenReturn(Arrays.asList(toRequestedItem(item1), toRequestedItem(item2)));
 
         List<ItemRequestGetResponseDto> resultDtoList = itemRequestService.getAllByRequestorId(requestor.getId(), 0, 10);
 
@@ -91,11 +95,10 @@ public class ItemRequestServiceTest {
         assertThat(resultDtoList.get(1).getItems().get(0).getAvailable(), equalTo(item2.getAvailable()));
         assertThat(resultDtoList.get(1).getItems().get(0).getRequestId(), equalTo(item2.getItemRequest().getId()));
 
-        verify(userRepository, times(1)).findById(eq(requestor.getId()));
+        verify(userCache, times(1)).exists(eq(requestor.getId()));
         verify(itemRequestRepository, times(1)).findAllByRequestorIdOrderByCreatedDesc(eq(requestor.getId()), any(Pageable.class));
-        verify(itemRepository, times(1)).findAllByItemRequestId(itemRequest1.getId());
-        verify(itemRepository, times(1)).findAllByItemRequestId(itemRequest2.getId());
-        verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository);
+        verify(itemRepository, times(1)).findAllRequestedItemsByItemRequestIdIn(eq(List.of(itemRequest1.getId(), itemRequest2.getId())));
+        verifyNoMoreInteractions(itemRequestRepository, userRepository, userCache, itemRepository);
     }
 
     @Test
@@ -123,8 +126,8 @@ public class ItemRequestServiceTest {
         );
 
         when(itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(eq(owner.getId()), any(Pageable.class))).thenReturn(itemRequestList);
-        when(itemRepository.findAllByItemRequestId(eq(itemRequest1.getId()))).thenReturn(Arrays.asList(item1));
-        when(itemRepository.findAllByItemRequestId(eq(itemRequest2.getId()))).thenReturn(Arrays.asList(item2));
+        when(itemRepository.findAllRequestedItemsByItemRequestIdIn(eq(List.of(itemRequest1.getId(), itemRequest2.getId()))))
+                .thenReturn(Arrays.asList(toRequestedItem(item1), toRequestedItem(item2)));
 
         List<ItemRequestGetResponseDto> resultDtoList = itemRequestService.getAll(owner.getId(), 0, 10);
 
@@ -149,9 +152,8 @@ public class ItemRequestServiceTest {
         assertThat(resultDtoList.get(1).getItems().get(0).getRequestId(), equalTo(item2.getItemRequest().getId()));
 
         verify(itemRequestRepository, times(1)).findAllByRequestorIdNotOrderByCreatedDesc(eq(owner.getId()), any(Pageable.class));
-        verify(itemRepository, times(1)).findAllByItemRequestId(itemRequest1.getId());
-        verify(itemRepository, times(1)).findAllByItemRequestId(itemRequest2.getId());
-        verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository);
+        verify(itemRepository, times(1)).findAllRequestedItemsByItemRequestIdIn(eq(List.of(itemRequest1.getId(), itemRequest2.getId())));
+        verifyNoMoreInteractions(itemRequestRepository, userRepository, userCache, itemRepository);
     }
 
     @Test
@@ -166,9 +168,9 @@ public class ItemRequestServiceTest {
         item.setOwner(owner);
         item.setItemRequest(itemRequest);
 
-        when(userRepository.findById(eq(requestor.getId()))).thenReturn(Optional.ofNullable(requestor));
+        when(userCache.exists(eq(requestor.getId()))).thenReturn(true);
         when(itemRequestRepository.findById(eq(itemRequest.getId()))).thenReturn(Optional.ofNullable(itemRequest));
-        when(itemRepository.findAllByItemRequestId(eq(itemRequest.getId()))).thenReturn(Arrays.asList(item));
+        when(itemRepository.findAllRequestedItemsByItemRequestIdIn(eq(List.of(itemRequest.getId())))).thenReturn(Arrays.asList(toRequestedItem(item)));
 
         ItemRequestGetResponseDto resultDto = itemRequestService.getById(requestor.getId(), itemRequest.getId());
 
@@ -181,10 +183,10 @@ public class ItemRequestServiceTest {
         assertThat(resultDto.getItems().get(0).getAvailable(), equalTo(item.getAvailable()));
         assertThat(resultDto.getItems().get(0).getRequestId(), equalTo(item.getItemRequest().getId()));
 
-        verify(userRepository, times(1)).findById(eq(requestor.getId()));
+        verify(userCache, times(1)).exists(eq(requestor.getId()));
         verify(itemRequestRepository, times(1)).findById(eq(itemRequest.getId()));
-        verify(itemRepository, times(1)).findAllByItemRequestId(eq(itemRequest.getId()));
-        verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository);
+        verify(itemRepository, times(1)).findAllRequestedItemsByItemRequestIdIn(eq(List.of(itemRequest.getId())));
+        verifyNoMoreInteractions(itemRequestRepository, userRepository, userCache, itemRepository);
     }
 
     @Test
@@ -194,7 +196,8 @@ public class ItemRequestServiceTest {
 
         ItemRequestCreateDto itemRequestCreateDto = ItemRequestCreateDto.builder().build();
 
-        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.ofNullable(user));
+        when(userCache.exists(eq(user.getId()))).thenReturn(true);
+        when(userRepository.getReferenceById(eq(user.getId()))).thenReturn(user);
         when(itemRequestRepository.save(any(ItemRequest.class))).thenReturn(itemRequest);
 
         ItemRequestCreateResponseDto resultDto = itemRequestService.create(itemRequestCreateDto, user.getId());
@@ -202,9 +205,10 @@ public class ItemRequestServiceTest {
         assertThat(resultDto.getId(), equalTo(itemRequest.getId()));
         assertThat(resultDto.getDescription(), equalTo(itemRequest.getDescription()));
 
-        verify(userRepository, times(1)).findById(eq(user.getId()));
+        verify(userCache, times(1)).exists(eq(user.getId()));
+        verify(userRepository, times(1)).getReferenceById(eq(user.getId()));
         verify(itemRequestRepository, times(1)).save(any(ItemRequest.class));
-        verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository);
+        verifyNoMoreInteractions(itemRequestRepository, userRepository, userCache, itemRepository);
     }
 
     private ItemRequest getItemRequest(int id) {
@@ -230,4 +234,9 @@ public class ItemRequestServiceTest {
                 .available(true)
                 .build();
     }
+
+    private ItemRequestGetResponseDto.RequestedItem toRequestedItem(Item item) {
+        return new ItemRequestGetResponseDto.RequestedItem(item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), item.getItemRequest().getId());
+    }
 }
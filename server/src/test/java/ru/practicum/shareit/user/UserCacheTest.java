@@ -0,0 +1,119 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCacheTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private MeterRegistry meterRegistry;
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(userRepository, 100, Duration.ofMinutes(10), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void existsTest() {
+        User user = getUser(1);
+
+        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.of(user));
+
+        assertThat(userCache.exists(user.getId()), equalTo(true));
+        assertThat(userCache.exists(user.getId()), equalTo(true));
+        assertThat(userCache.get(user.getId()).get().getName(), equalTo(user.getName()));
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter().count(), equalTo(2.0));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "miss").functionCounter().count(), equalTo(1.0));
+
+        verify(userRepository, times(1)).findById(eq(user.getId()));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void existsTest_NotFound() {
+        when(userRepository.findById(eq(1))).thenReturn(Optional.empty());
+
+        assertThat(userCache.exists(1), equalTo(false));
+        assertThat(userCache.exists(1), equalTo(false));
+
+        verify(userRepository, times(2)).findById(eq(1));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void evictTest() {
+        User user = getUser(1);
+        User renamed = getUser(1);
+        renamed.setName("Renamed");
+
+        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.of(user), Optional.of(renamed));
+
+        assertThat(userCache.get(user.getId()).get().getName(), equalTo(user.getName()));
+
+        userCache.evict(user.getId());
+
+        assertThat(userCache.get(user.getId()).get().getName(), equalTo(renamed.getName()));
+
+        verify(userRepository, times(2)).findById(eq(user.getId()));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void evictTest_AfterTransactionCompletion() {
+        User user = getUser(1);
+
+        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.of(user), Optional.empty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        userCache.evict(user.getId());
+
+        assertThat(userCache.exists(user.getId()), equalTo(true));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(userCache.exists(user.getId()), equalTo(false));
+
+        verify(userRepository, times(2)).findById(eq(user.getId()));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    private User getUser(int id) {
+        return User.builder()
+                .id(id)
+                .name("User" + id)
+                .email("user" + id + "@user.com")
+                .build();
+    }
+}
\ No newline at end of file
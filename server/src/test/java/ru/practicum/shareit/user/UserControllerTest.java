@@ -7,17 +7,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -53,16 +60,33 @@ public class UserControllerTest {
     void getByIdTest() throws Exception {
         UserDto userDto = getUserDto(1);
 
+        when(userService.getEntityTag(eq(userDto.getId()))).thenReturn("0");
         when(userService.getById(eq(userDto.getId()))).thenReturn(userDto);
 
         mockMvc.perform(get("/users/" + userDto.getId()))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
                 .andExpect(jsonPath("$.id").value(userDto.getId()));
 
+        verify(userService, times(1)).getEntityTag(eq(userDto.getId()));
         verify(userService, times(1)).getById(eq(userDto.getId()));
         verifyNoMoreInteractions(userService);
     }
 
+    @Test
+    void getByIdNotModifiedTest() throws Exception {
+        int userId = 1;
+
+        when(userService.getEntityTag(eq(userId))).thenReturn("0");
+
+        mockMvc.perform(get("/users/" + userId)
+                        .header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified());
+
+        verify(userService, times(1)).getEntityTag(eq(userId));
+        verifyNoMoreInteractions(userService);
+    }
+
     @Test
     void getAllTest() throws Exception {
         UserDto userDto1 = getUserDto(1);
@@ -73,17 +97,64 @@ public class UserControllerTest {
                 userDto2
         );
 
-        when(userService.getAll()).thenReturn(userDtoList);
+        when(userService.getAll(eq(0), eq(20))).thenReturn(userDtoList);
 
         mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(userDto1.getId()))
                 .andExpect(jsonPath("$[1].id").value(userDto2.getId()));
 
-        verify(userService, times(1)).getAll();
+        verify(userService, times(1)).getAll(eq(0), eq(20));
         verifyNoMoreInteractions(userService);
     }
 
+    @Test
+    void getAllWithCursorTest() throws Exception {
+        UserDto userDto1 = getUserDto(3);
+        UserDto userDto2 = getUserDto(4);
+
+        when(userService.getAllAfter(eq(2), eq(2))).thenReturn(List.of(userDto1, userDto2));
+        when(userService.getAllAfter(eq(4), eq(2))).thenReturn(List.of());
+
+        mockMvc.perform(get("/users")
+                        .param("cursor", "2")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, "4"))
+                .andExpect(jsonPath("$[0].id").value(userDto1.getId()))
+                .andExpect(jsonPath("$[1].id").value(userDto2.getId()));
+
+        mockMvc.perform(get("/users")
+                        .param("cursor", "4")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void exportTest() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(getUserDto(1));
+            consumer.accept(getUserDto(2));
+            return null;
+        }).when(userService).export(any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines.length, equalTo(2));
+        assertThat(objectMapper.readValue(lines[0], UserDto.class).getId(), equalTo(1));
+        assertThat(objectMapper.readValue(lines[1], UserDto.class).getId(), equalTo(2));
+    }
+
     @Test
     public void updateTest() throws Exception {
         UserDto userDto = getUserDto(1);
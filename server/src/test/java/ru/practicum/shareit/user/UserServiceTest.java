@@ -6,13 +6,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +24,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +35,9 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @Test
     void createTest() {
         UserDto inputDto = UserDto.builder().build();
@@ -69,7 +76,7 @@ public class UserServiceTest {
     void getByIdTest() {
         User user = getUser(1);
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.ofNullable(user));
+        when(userCache.get(eq(user.getId()))).thenReturn(Optional.of(UserMapper.toDto(user)));
 
         UserDto resultDto = userService.getById(user.getId());
 
@@ -77,8 +84,22 @@ public class UserServiceTest {
         assertThat(resultDto.getName(), equalTo(user.getName()));
         assertThat(resultDto.getEmail(), equalTo(user.getEmail()));
 
-        verify(userRepository, times(1)).findById(eq(user.getId()));
-        verifyNoMoreInteractions(userRepository);
+        verify(userCache, times(1)).get(eq(user.getId()));
+        verifyNoMoreInteractions(userRepository, userCache);
+    }
+
+    @Test
+    void getByIdTest_NotFound() {
+        when(userCache.get(eq(1))).thenReturn(Optional.empty());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
+            userService.getById(1);
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.NOT_FOUND));
+
+        verify(userCache, times(1)).get(eq(1));
+        verifyNoMoreInteractions(userRepository, userCache);
     }
 
     @Test
@@ -91,9 +112,9 @@ public class UserServiceTest {
                 user2
         );
 
-        when(userRepository.findAll()).thenReturn(userList);
+        when(userRepository.findAllByOrderByIdAsc(eq(PageRequest.of(1, 2)))).thenReturn(userList);
 
-        List<UserDto> resultDtoList = userService.getAll();
+        List<UserDto> resultDtoList = userService.getAll(2, 2);
 
         assertThat(resultDtoList.get(0).getId(), equalTo(user1.getId()));
         assertThat(resultDtoList.get(0).getName(), equalTo(user1.getName()));
@@ -103,7 +124,54 @@ public class UserServiceTest {
         assertThat(resultDtoList.get(1).getName(), equalTo(user2.getName()));
         assertThat(resultDtoList.get(1).getEmail(), equalTo(user2.getEmail()));
 
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllByOrderByIdAsc(eq(PageRequest.of(1, 2)));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void getAllAfterTest() {
+        User user = getUser(3);
+
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(eq(2), eq(PageRequest.of(0, 1)))).thenReturn(List.of(user));
+
+        List<UserDto> resultDtoList = userService.getAllAfter(2, 1);
+
+        assertThat(resultDtoList.size(), equalTo(1));
+        assertThat(resultDtoList.get(0).getId(), equalTo(user.getId()));
+
+        verify(userRepository, times(1)).findAllByIdGreaterThanOrderByIdAsc(eq(2), eq(PageRequest.of(0, 1)));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void getAllTest_NonPositiveSize() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
+            userService.getAll(0, 0);
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+
+        e = assertThrows(ResponseStatusException.class, () -> {
+            userService.getAllAfter(2, 0);
+        });
+
+        assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void exportTest() {
+        UserDto userDto1 = new UserDto(1, "User1", "user1@user.com");
+        UserDto userDto2 = new UserDto(2, "User2", "user2@user.com");
+
+        when(userRepository.findExportChunk(eq(0), eq(PageRequest.of(0, 500)))).thenReturn(List.of(userDto1, userDto2));
+
+        List<UserDto> exported = new ArrayList<>();
+        userService.export(exported::add);
+
+        assertThat(exported, equalTo(List.of(userDto1, userDto2)));
+        verify(userRepository, times(1)).findExportChunk(eq(0), eq(PageRequest.of(0, 500)));
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -124,7 +192,8 @@ public class UserServiceTest {
 
         verify(userRepository, times(1)).findById(eq(user.getId()));
         verify(userRepository, times(1)).save(any(User.class));
-        verifyNoMoreInteractions(userRepository);
+        verify(userCache, times(1)).evict(eq(user.getId()));
+        verifyNoMoreInteractions(userRepository, userCache);
     }
 
     @Test
@@ -144,7 +213,7 @@ public class UserServiceTest {
 
         verify(userRepository, times(1)).findById(eq(user.getId()));
         verify(userRepository, times(1)).save(any(User.class));
-        verifyNoMoreInteractions(userRepository);
+        verifyNoMoreInteractions(userRepository, userCache);
     }
 
     @Test
@@ -152,7 +221,8 @@ public class UserServiceTest {
         userService.delete(1);
 
         verify(userRepository, times(1)).deleteById(eq(1));
-        verifyNoMoreInteractions(userRepository);
+        verify(userCache, times(1)).evict(eq(1));
+        verifyNoMoreInteractions(userRepository, userCache);
     }
 
     private User getUser(int id) {
@@ -1,5 +1,8 @@
 package ru.practicum.shareit.util;
 
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -9,4 +12,15 @@ public class TestUtil {
     public static LocalDateTime getCurrentTimeWithoutNano() {
         return LocalDateTime.now().withNano(0);
     }
+
+    public static User persistUser(EntityManager entityManager, String name) {
+        User user = User.builder()
+                .name(name)
+                .email(name + "@user.com")
+                .build();
+
+        entityManager.persist(user);
+
+        return user;
+    }
 }
@@ -0,0 +1,23 @@
+INSERT INTO users (user_id, user_name, email)
+SELECT n, 'user' || n, 'user' || n || '@mail.com' FROM generate_series(1, 10000) n;
+
+INSERT INTO requests (request_id, request_description, requestor_id, create_date)
+SELECT n, 'request ' || n, 1 + n % 10000, TIMESTAMP '2025-01-01' + n * INTERVAL '1 minute'
+FROM generate_series(1, 20000) n;
+
+INSERT INTO items (item_id, item_name, description, available, owner_id, request_id)
+SELECT n, CASE WHEN n % 1000 = 0 THEN 'drill ' ELSE 'item ' END || md5(n::text),
+       'description ' || md5((n * 7)::text), n % 5 <> 0, 1 + n % 10000,
+       CASE WHEN n % 10 = 0 THEN 1 + n % 20000 END
+FROM generate_series(1, 50000) n;
+
+INSERT INTO bookings (booking_id, start_date, end_date, item_id, booker_id, status)
+SELECT n, TIMESTAMP '2025-01-01' + n * INTERVAL '5 minute', TIMESTAMP '2025-01-02' + n * INTERVAL '5 minute',
+       1 + n % 50000, 1 + (n * 7) % 10000, (ARRAY ['WAITING', 'APPROVED', 'REJECTED', 'CANCELED'])[1 + n % 4]
+FROM generate_series(1, 200000) n;
+
+INSERT INTO comments (comment_id, comment_text, item_id, author_id, created_date)
+SELECT n, 'comment ' || n, 1 + n % 50000, 1 + n % 10000, TIMESTAMP '2025-01-01' + n * INTERVAL '1 minute'
+FROM generate_series(1, 50000) n;
+
+VACUUM ANALYZE;